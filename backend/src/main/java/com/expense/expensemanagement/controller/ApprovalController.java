@@ -23,7 +23,7 @@ public class ApprovalController {
     private ApprovalService approvalService;
 
     @PostMapping("/action")
-    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canApprove(principal)")
     public ResponseEntity<ApiResponse> processApprovalAction(@AuthenticationPrincipal UserPrincipal currentUser,
                                                            @Valid @RequestBody ApprovalActionRequest actionRequest) {
         try {
@@ -37,15 +37,24 @@ public class ApprovalController {
     }
 
     @GetMapping("/pending")
-    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<ExpenseDto>> getPendingApprovals(@AuthenticationPrincipal UserPrincipal currentUser,
-                                                               Pageable pageable) {
-        Page<ExpenseDto> expenses = approvalService.getPendingApprovalsForUser(currentUser.getId(), pageable);
+    @PreAuthorize("@accessPolicy.canApprove(principal)")
+    public ResponseEntity<Page<ExpenseSummaryDto>> getPendingApprovals(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                       Pageable pageable) {
+        Page<ExpenseSummaryDto> expenses = approvalService.getPendingApprovalsForUser(currentUser.getId(), pageable);
+        return ResponseEntity.ok(expenses);
+    }
+
+    @GetMapping("/pending/cursor")
+    @PreAuthorize("@accessPolicy.canApprove(principal)")
+    public ResponseEntity<CursorPage<ExpenseSummaryDto>> getPendingApprovalsByCursor(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                                     @RequestParam(required = false) String cursor,
+                                                                                     @RequestParam(defaultValue = "20") int size) {
+        CursorPage<ExpenseSummaryDto> expenses = approvalService.getPendingApprovalsForUser(currentUser.getId(), cursor, size);
         return ResponseEntity.ok(expenses);
     }
 
     @GetMapping("/history")
-    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canApprove(principal)")
     public ResponseEntity<Page<ApprovalStepDto>> getApprovalHistory(@AuthenticationPrincipal UserPrincipal currentUser,
                                                                   Pageable pageable) {
         Page<ApprovalStepDto> approvals = approvalService.getApprovalHistoryForUser(currentUser.getId(), pageable);
@@ -55,17 +64,17 @@ public class ApprovalController {
     @GetMapping("/workflow/{expenseId}")
     public ResponseEntity<List<ApprovalStepDto>> getExpenseWorkflow(@PathVariable Long expenseId,
                                                                   @AuthenticationPrincipal UserPrincipal currentUser) {
-        List<ApprovalStepDto> workflow = approvalService.getExpenseWorkflow(expenseId, currentUser.getId());
+        List<ApprovalStepDto> workflow = approvalService.getExpenseWorkflow(expenseId, currentUser);
         return ResponseEntity.ok(workflow);
     }
 
     @PostMapping("/escalate/{expenseId}")
-    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canEscalate(principal)")
     public ResponseEntity<ApiResponse> escalateExpense(@PathVariable Long expenseId,
                                                      @RequestParam String reason,
                                                      @AuthenticationPrincipal UserPrincipal currentUser) {
         try {
-            ExpenseDto expense = approvalService.escalateExpense(expenseId, reason, currentUser.getId());
+            ExpenseDto expense = approvalService.escalateExpense(expenseId, reason, currentUser);
             return ResponseEntity.ok(ApiResponse.success("Expense escalated successfully!", expense));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
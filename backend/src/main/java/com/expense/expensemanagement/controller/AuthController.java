@@ -1,10 +1,16 @@
 package com.expense.expensemanagement.controller;
 
 import com.expense.expensemanagement.dto.*;
+import com.expense.expensemanagement.security.AuthRateLimiter;
+import com.expense.expensemanagement.security.PasswordHashingBusyException;
+import com.expense.expensemanagement.security.RateLimiter;
 import com.expense.expensemanagement.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -15,8 +21,18 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
     @PostMapping("/signin")
-    public ResponseEntity<JwtAuthenticationResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        long wait = authRateLimiter.tryAcquireForLogin(loginRequest.getUsernameOrEmail());
+        if (wait > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.toRetryAfterSeconds(wait)))
+                    .body(ApiResponse.error(AuthRateLimiter.TOO_MANY_ATTEMPTS));
+        }
+
         JwtAuthenticationResponse response = authService.authenticateUser(loginRequest);
         return ResponseEntity.ok(response);
     }
@@ -26,6 +42,9 @@ public class AuthController {
         try {
             JwtAuthenticationResponse response = authService.registerUser(signUpRequest);
             return ResponseEntity.ok(ApiResponse.success("User registered successfully!", response));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Registration failed: " + e.getMessage()));
@@ -33,14 +52,30 @@ public class AuthController {
     }
 
     @PostMapping("/refresh")
-    public ResponseEntity<JwtAuthenticationResponse> refreshToken(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<JwtAuthenticationResponse> refreshToken(@RequestHeader(value = "Authorization", required = false) String token,
+                                                                  @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
         try {
-            String jwt = token.substring(7); // Remove "Bearer " prefix
-            JwtAuthenticationResponse response = authService.refreshToken(jwt);
+            JwtAuthenticationResponse response;
+            if (refreshRequest != null && StringUtils.hasText(refreshRequest.getRefreshToken())) {
+                response = authService.refreshAccessToken(refreshRequest.getRefreshToken());
+            } else {
+                String jwt = token.substring(7); // Remove "Bearer " prefix
+                response = authService.refreshToken(jwt);
+            }
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse> logout(@RequestHeader(value = "Authorization", required = false) String token,
+                                              @RequestBody(required = false) RefreshTokenRequest refreshRequest) {
+        String jwt = StringUtils.hasText(token) && token.startsWith("Bearer ") ? token.substring(7) : null;
+        String refreshToken = refreshRequest != null && StringUtils.hasText(refreshRequest.getRefreshToken())
+                ? refreshRequest.getRefreshToken() : null;
+        authService.logout(jwt, refreshToken);
+        return ResponseEntity.ok(ApiResponse.success("Logged out successfully!"));
+    }
 }
 
@@ -3,19 +3,32 @@ package com.expense.expensemanagement.controller;
 import com.expense.expensemanagement.dto.*;
 import com.expense.expensemanagement.model.Expense;
 import com.expense.expensemanagement.security.UserPrincipal;
+import com.expense.expensemanagement.service.ExchangeRateUnavailableException;
+import com.expense.expensemanagement.service.ExpenseExportService;
+import com.expense.expensemanagement.service.ExpenseImportService;
+import com.expense.expensemanagement.service.ExpenseRollupService;
 import com.expense.expensemanagement.service.ExpenseService;
+import com.expense.expensemanagement.service.RateSnapshotService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -26,12 +39,27 @@ public class ExpenseController {
     @Autowired
     private ExpenseService expenseService;
 
+    @Autowired
+    private ExpenseImportService expenseImportService;
+
+    @Autowired
+    private ExpenseExportService expenseExportService;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Autowired
+    private RateSnapshotService rateSnapshotService;
+
     @PostMapping
     public ResponseEntity<ApiResponse> createExpense(@AuthenticationPrincipal UserPrincipal currentUser,
                                                    @Valid @RequestBody CreateExpenseRequest createExpenseRequest) {
         try {
             ExpenseDto expense = expenseService.createExpense(currentUser.getId(), createExpenseRequest);
             return ResponseEntity.ok(ApiResponse.success("Expense created successfully!", expense));
+        } catch (ExchangeRateUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to create expense: " + e.getMessage()));
@@ -63,43 +91,139 @@ public class ExpenseController {
         }
     }
 
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse> importExpenses(@RequestParam("file") MultipartFile file,
+                                                    @AuthenticationPrincipal UserPrincipal currentUser) {
+        try (InputStream input = file.getInputStream()) {
+            ExpenseImportResult result = expenseImportService.importExpenses(currentUser, input);
+            return ResponseEntity.ok(ApiResponse.success(
+                    "Imported " + result.getImported() + " expenses, " + result.getFailed() + " rows rejected", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Failed to import expenses: " + e.getMessage()));
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<Page<ExpenseDto>> getMyExpenses(@AuthenticationPrincipal UserPrincipal currentUser,
-                                                         Pageable pageable) {
-        Page<ExpenseDto> expenses = expenseService.getExpensesByEmployee(currentUser.getId(), pageable);
+    public ResponseEntity<Slice<ExpenseSummaryDto>> getMyExpenses(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                  @RequestParam(defaultValue = "true") boolean count,
+                                                                  Pageable pageable) {
+        Slice<ExpenseSummaryDto> expenses = count
+                ? expenseService.getExpensesByEmployee(currentUser.getId(), pageable)
+                : expenseService.getExpenseSliceByEmployee(currentUser.getId(), pageable);
+        return ResponseEntity.ok(expenses);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ExpenseSummaryDto>> getMyExpensesByCursor(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "20") int size) {
+        CursorPage<ExpenseSummaryDto> expenses = expenseService.getExpensesByEmployee(currentUser.getId(), cursor, size);
         return ResponseEntity.ok(expenses);
     }
 
     @GetMapping("/{expenseId}")
     public ResponseEntity<ExpenseDto> getExpense(@PathVariable Long expenseId,
                                                @AuthenticationPrincipal UserPrincipal currentUser) {
-        ExpenseDto expense = expenseService.getExpense(expenseId, currentUser.getId(), currentUser.getCompanyId());
+        ExpenseDto expense = expenseService.getExpense(expenseId, currentUser);
         return ResponseEntity.ok(expense);
     }
 
     @GetMapping("/pending-approval")
-    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<List<ExpenseDto>> getPendingApprovals(@AuthenticationPrincipal UserPrincipal currentUser) {
-        List<ExpenseDto> expenses = expenseService.getPendingApprovalsForUser(currentUser.getId());
+    @PreAuthorize("@accessPolicy.canApprove(principal)")
+    public ResponseEntity<List<ExpenseSummaryDto>> getPendingApprovals(@AuthenticationPrincipal UserPrincipal currentUser) {
+        List<ExpenseSummaryDto> expenses = expenseService.getPendingApprovalsForUser(currentUser.getId());
         return ResponseEntity.ok(expenses);
     }
 
     @GetMapping("/team")
-    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
-    public ResponseEntity<Page<ExpenseDto>> getTeamExpenses(@AuthenticationPrincipal UserPrincipal currentUser,
-                                                           Pageable pageable) {
-        Page<ExpenseDto> expenses = expenseService.getTeamExpenses(currentUser.getId(), pageable);
+    @PreAuthorize("@accessPolicy.canViewTeam(principal)")
+    public ResponseEntity<Slice<ExpenseSummaryDto>> getTeamExpenses(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                    @RequestParam(defaultValue = "true") boolean count,
+                                                                    Pageable pageable) {
+        Slice<ExpenseSummaryDto> expenses = count
+                ? expenseService.getTeamExpenses(currentUser.getId(), pageable)
+                : expenseService.getTeamExpenseSlice(currentUser.getId(), pageable);
+        return ResponseEntity.ok(expenses);
+    }
+
+    @GetMapping("/team/cursor")
+    @PreAuthorize("@accessPolicy.canViewTeam(principal)")
+    public ResponseEntity<CursorPage<ExpenseSummaryDto>> getTeamExpensesByCursor(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                                 @RequestParam(required = false) String cursor,
+                                                                                 @RequestParam(defaultValue = "20") int size) {
+        CursorPage<ExpenseSummaryDto> expenses = expenseService.getTeamExpenses(currentUser.getId(), cursor, size);
         return ResponseEntity.ok(expenses);
     }
 
     @GetMapping("/company")
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Page<ExpenseDto>> getAllCompanyExpenses(@AuthenticationPrincipal UserPrincipal currentUser,
-                                                                Pageable pageable) {
-        Page<ExpenseDto> expenses = expenseService.getAllCompanyExpenses(currentUser.getCompanyId(), pageable);
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
+    public ResponseEntity<Slice<ExpenseSummaryDto>> getAllCompanyExpenses(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                          @RequestParam(defaultValue = "true") boolean count,
+                                                                          Pageable pageable) {
+        Slice<ExpenseSummaryDto> expenses = count
+                ? expenseService.getAllCompanyExpenses(currentUser.getCompanyId(), pageable)
+                : expenseService.getCompanyExpenseSlice(currentUser.getCompanyId(), pageable);
+        return ResponseEntity.ok(expenses);
+    }
+
+    @GetMapping("/company/cursor")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
+    public ResponseEntity<CursorPage<ExpenseSummaryDto>> getAllCompanyExpensesByCursor(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                                       @RequestParam(required = false) String cursor,
+                                                                                       @RequestParam(defaultValue = "20") int size) {
+        CursorPage<ExpenseSummaryDto> expenses = expenseService.getAllCompanyExpenses(currentUser.getCompanyId(), cursor, size);
         return ResponseEntity.ok(expenses);
     }
 
+    @GetMapping("/company/export")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
+    public ResponseEntity<StreamingResponseBody> exportCompanyExpenses(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                       @RequestParam(defaultValue = "csv") String format,
+                                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        ExpenseExportService.Format exportFormat = ExpenseExportService.Format.of(format);
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+        }
+        Long companyId = currentUser.getCompanyId();
+        StreamingResponseBody body = output ->
+                expenseExportService.exportCompanyExpenses(companyId, exportFormat, startDate, endDate, output);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"expenses." + exportFormat.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
+    @GetMapping("/company/dashboard")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
+    public ResponseEntity<ExpenseDashboardDto> getCompanyDashboard(@AuthenticationPrincipal UserPrincipal currentUser,
+                                                                   @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                                   @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        YearMonth toPeriod = to != null ? to : YearMonth.now();
+        YearMonth fromPeriod = from != null ? from : toPeriod.minusMonths(11);
+        ExpenseDashboardDto dashboard = expenseRollupService.getDashboard(currentUser.getCompanyId(), fromPeriod, toPeriod);
+        return ResponseEntity.ok(dashboard);
+    }
+
+    @PostMapping("/company/dashboard/rebuild")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
+    public ResponseEntity<ApiResponse> rebuildCompanyDashboard(@AuthenticationPrincipal UserPrincipal currentUser) {
+        expenseRollupService.rebuild(currentUser.getCompanyId());
+        return ResponseEntity.ok(ApiResponse.success("Dashboard totals rebuilt"));
+    }
+
+    @GetMapping("/exchange-rates/snapshot")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
+    public ResponseEntity<byte[]> exportExchangeRateSnapshot() {
+        byte[] snapshot = rateSnapshotService.export();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"exchange-rates.snapshot\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(snapshot);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Page<ExpenseDto>> searchExpenses(@AuthenticationPrincipal UserPrincipal currentUser,
                                                           @RequestParam(required = false) String description,
@@ -109,8 +233,7 @@ public class ExpenseController {
                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
                                                           Pageable pageable) {
         Page<ExpenseDto> expenses = expenseService.searchExpenses(
-                currentUser.getId(), currentUser.getCompanyId(), currentUser.getRole(),
-                description, category, status, startDate, endDate, pageable);
+                currentUser, description, category, status, startDate, endDate, pageable);
         return ResponseEntity.ok(expenses);
     }
 
@@ -121,6 +244,9 @@ public class ExpenseController {
         try {
             ExpenseDto updatedExpense = expenseService.updateExpense(expenseId, expenseDto, currentUser.getId());
             return ResponseEntity.ok(ApiResponse.success("Expense updated successfully!", updatedExpense));
+        } catch (ExchangeRateUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to update expense: " + e.getMessage()));
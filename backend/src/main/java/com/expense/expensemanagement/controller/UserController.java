@@ -1,6 +1,7 @@
 package com.expense.expensemanagement.controller;
 
 import com.expense.expensemanagement.dto.*;
+import com.expense.expensemanagement.security.PasswordHashingBusyException;
 import com.expense.expensemanagement.model.User;
 import com.expense.expensemanagement.security.UserPrincipal;
 import com.expense.expensemanagement.service.UserService;
@@ -8,6 +9,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -30,7 +32,7 @@ public class UserController {
     }
 
     @GetMapping
-    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @PreAuthorize("@accessPolicy.canViewTeam(principal)")
     public ResponseEntity<Page<UserDto>> getAllUsers(@AuthenticationPrincipal UserPrincipal currentUser,
                                                    Pageable pageable) {
         Page<UserDto> users = userService.getAllUsersInCompany(currentUser.getCompanyId(), pageable);
@@ -38,7 +40,7 @@ public class UserController {
     }
 
     @GetMapping("/search")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @PreAuthorize("@accessPolicy.canViewTeam(principal)")
     public ResponseEntity<List<UserDto>> searchUsers(@AuthenticationPrincipal UserPrincipal currentUser,
                                                    @RequestParam String searchTerm) {
         List<UserDto> users = userService.searchUsersInCompany(currentUser.getCompanyId(), searchTerm);
@@ -46,26 +48,29 @@ public class UserController {
     }
 
     @GetMapping("/managers")
-    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @PreAuthorize("@accessPolicy.canViewTeam(principal)")
     public ResponseEntity<List<UserDto>> getManagers(@AuthenticationPrincipal UserPrincipal currentUser) {
         List<UserDto> managers = userService.getManagersInCompany(currentUser.getCompanyId());
         return ResponseEntity.ok(managers);
     }
 
     @GetMapping("/subordinates")
-    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canViewTeam(principal)")
     public ResponseEntity<List<UserDto>> getSubordinates(@AuthenticationPrincipal UserPrincipal currentUser) {
         List<UserDto> subordinates = userService.getSubordinates(currentUser.getId());
         return ResponseEntity.ok(subordinates);
     }
 
     @PostMapping
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
     public ResponseEntity<ApiResponse> createUser(@AuthenticationPrincipal UserPrincipal currentUser,
                                                 @Valid @RequestBody CreateUserRequest createUserRequest) {
         try {
             UserDto user = userService.createUser(currentUser.getCompanyId(), createUserRequest);
             return ResponseEntity.ok(ApiResponse.success("User created successfully!", user));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error("Failed to create user: " + e.getMessage()));
@@ -73,7 +78,7 @@ public class UserController {
     }
 
     @PutMapping("/{userId}")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
     public ResponseEntity<ApiResponse> updateUser(@PathVariable Long userId,
                                                 @Valid @RequestBody UserDto userDto) {
         try {
@@ -86,7 +91,7 @@ public class UserController {
     }
 
     @PutMapping("/{userId}/role")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
     public ResponseEntity<ApiResponse> updateUserRole(@PathVariable Long userId,
                                                     @RequestParam String roleType) {
         try {
@@ -99,7 +104,7 @@ public class UserController {
     }
 
     @PutMapping("/{userId}/manager")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
     public ResponseEntity<ApiResponse> updateUserManager(@PathVariable Long userId,
                                                        @RequestParam(required = false) Long managerId) {
         try {
@@ -112,7 +117,7 @@ public class UserController {
     }
 
     @PutMapping("/{userId}/status")
-    @PreAuthorize("hasRole('ADMIN')")
+    @PreAuthorize("@accessPolicy.canManageCompany(principal)")
     public ResponseEntity<ApiResponse> updateUserStatus(@PathVariable Long userId,
                                                       @RequestParam Boolean isActive) {
         try {
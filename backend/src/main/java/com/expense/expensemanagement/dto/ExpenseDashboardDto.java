@@ -0,0 +1,95 @@
+package com.expense.expensemanagement.dto;
+
+import com.expense.expensemanagement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Company dashboard for a range of months: the non-empty rollup cells plus totals by status, by
+ * category and overall, in the company currency.
+ */
+public class ExpenseDashboardDto {
+    private YearMonth from;
+    private YearMonth to;
+    private List<ExpenseRollupDto> cells;
+    private Map<Expense.ExpenseStatus, BigDecimal> totalByStatus;
+    private Map<Expense.ExpenseCategory, BigDecimal> totalByCategory;
+    private Long expenseCount;
+    private BigDecimal totalAmount;
+
+    // Constructors
+    public ExpenseDashboardDto() {}
+
+    public ExpenseDashboardDto(YearMonth from, YearMonth to, List<ExpenseRollupDto> cells,
+                               Map<Expense.ExpenseStatus, BigDecimal> totalByStatus,
+                               Map<Expense.ExpenseCategory, BigDecimal> totalByCategory,
+                               Long expenseCount, BigDecimal totalAmount) {
+        this.from = from;
+        this.to = to;
+        this.cells = cells;
+        this.totalByStatus = totalByStatus;
+        this.totalByCategory = totalByCategory;
+        this.expenseCount = expenseCount;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters and Setters
+    public YearMonth getFrom() {
+        return from;
+    }
+
+    public void setFrom(YearMonth from) {
+        this.from = from;
+    }
+
+    public YearMonth getTo() {
+        return to;
+    }
+
+    public void setTo(YearMonth to) {
+        this.to = to;
+    }
+
+    public List<ExpenseRollupDto> getCells() {
+        return cells;
+    }
+
+    public void setCells(List<ExpenseRollupDto> cells) {
+        this.cells = cells;
+    }
+
+    public Map<Expense.ExpenseStatus, BigDecimal> getTotalByStatus() {
+        return totalByStatus;
+    }
+
+    public void setTotalByStatus(Map<Expense.ExpenseStatus, BigDecimal> totalByStatus) {
+        this.totalByStatus = totalByStatus;
+    }
+
+    public Map<Expense.ExpenseCategory, BigDecimal> getTotalByCategory() {
+        return totalByCategory;
+    }
+
+    public void setTotalByCategory(Map<Expense.ExpenseCategory, BigDecimal> totalByCategory) {
+        this.totalByCategory = totalByCategory;
+    }
+
+    public Long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(Long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,62 @@
+package com.expense.expensemanagement.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ExpenseImportResult {
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+    private Boolean errorsTruncated = false;
+
+    // Getters and Setters
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public Boolean getErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(Boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public static class RowError {
+        private final int line;
+        private final String message;
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
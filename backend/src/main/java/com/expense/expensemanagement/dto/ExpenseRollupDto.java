@@ -0,0 +1,72 @@
+package com.expense.expensemanagement.dto;
+
+import com.expense.expensemanagement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * One dashboard cell: how many expenses a company has in a month, category and status, and their
+ * total in the company currency.
+ */
+public class ExpenseRollupDto {
+    private YearMonth period;
+    private Expense.ExpenseCategory category;
+    private Expense.ExpenseStatus status;
+    private Long expenseCount;
+    private BigDecimal totalAmount;
+
+    // Constructors
+    public ExpenseRollupDto() {}
+
+    public ExpenseRollupDto(LocalDate period, Expense.ExpenseCategory category, Expense.ExpenseStatus status,
+                            Long expenseCount, BigDecimal totalAmount) {
+        this.period = YearMonth.from(period);
+        this.category = category;
+        this.status = status;
+        this.expenseCount = expenseCount;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters and Setters
+    public YearMonth getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(YearMonth period) {
+        this.period = period;
+    }
+
+    public Expense.ExpenseCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(Expense.ExpenseCategory category) {
+        this.category = category;
+    }
+
+    public Expense.ExpenseStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Expense.ExpenseStatus status) {
+        this.status = status;
+    }
+
+    public Long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(Long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
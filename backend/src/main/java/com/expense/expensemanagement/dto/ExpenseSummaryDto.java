@@ -0,0 +1,149 @@
+package com.expense.expensemanagement.dto;
+
+import com.expense.expensemanagement.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Row of an expense list screen. Built directly by repository projections, without loading
+ * the entity or its steps and comments; use {@link ExpenseDto} for the detail view.
+ */
+public class ExpenseSummaryDto {
+    private Long id;
+    private String description;
+    private BigDecimal amount;
+    private String currency;
+    private BigDecimal convertedAmount;
+    private String convertedCurrency;
+    private Expense.ExpenseCategory category;
+    private LocalDate expenseDate;
+    private Expense.ExpenseStatus status;
+    private Long employeeId;
+    private String employeeName;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ExpenseSummaryDto() {}
+
+    public ExpenseSummaryDto(Long id, String description, BigDecimal amount, String currency,
+                             BigDecimal convertedAmount, String convertedCurrency,
+                             Expense.ExpenseCategory category, LocalDate expenseDate, Expense.ExpenseStatus status,
+                             Long employeeId, String employeeFirstName, String employeeLastName,
+                             LocalDateTime createdAt) {
+        this.id = id;
+        this.description = description;
+        this.amount = amount;
+        this.currency = currency;
+        this.convertedAmount = convertedAmount;
+        this.convertedCurrency = convertedCurrency;
+        this.category = category;
+        this.expenseDate = expenseDate;
+        this.status = status;
+        this.employeeId = employeeId;
+        this.employeeName = employeeFirstName + " " + employeeLastName;
+        this.createdAt = createdAt;
+    }
+
+    public PageCursor toCursor() {
+        return new PageCursor(createdAt, id);
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getConvertedAmount() {
+        return convertedAmount;
+    }
+
+    public void setConvertedAmount(BigDecimal convertedAmount) {
+        this.convertedAmount = convertedAmount;
+    }
+
+    public String getConvertedCurrency() {
+        return convertedCurrency;
+    }
+
+    public void setConvertedCurrency(String convertedCurrency) {
+        this.convertedCurrency = convertedCurrency;
+    }
+
+    public Expense.ExpenseCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(Expense.ExpenseCategory category) {
+        this.category = category;
+    }
+
+    public LocalDate getExpenseDate() {
+        return expenseDate;
+    }
+
+    public void setExpenseDate(LocalDate expenseDate) {
+        this.expenseDate = expenseDate;
+    }
+
+    public Expense.ExpenseStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Expense.ExpenseStatus status) {
+        this.status = status;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public void setEmployeeName(String employeeName) {
+        this.employeeName = employeeName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -2,6 +2,7 @@ package com.expense.expensemanagement.dto;
 
 public class JwtAuthenticationResponse {
     private String accessToken;
+    private String refreshToken;
     private String tokenType = "Bearer";
     private UserSummary user;
 
@@ -12,6 +13,12 @@ public class JwtAuthenticationResponse {
         this.user = user;
     }
 
+    public JwtAuthenticationResponse(String accessToken, String refreshToken, UserSummary user) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.user = user;
+    }
+
     public String getAccessToken() {
         return accessToken;
     }
@@ -20,6 +27,14 @@ public class JwtAuthenticationResponse {
         this.accessToken = accessToken;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getTokenType() {
         return tokenType;
     }
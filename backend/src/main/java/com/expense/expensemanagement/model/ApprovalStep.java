@@ -7,7 +7,9 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "approval_steps")
+@Table(name = "approval_steps", indexes = {
+    @Index(name = "idx_approval_steps_approver_status_expense", columnList = "approver_id, status, expense_id")
+})
 public class ApprovalStep extends BaseEntity {
 
     public enum ApprovalStatus {
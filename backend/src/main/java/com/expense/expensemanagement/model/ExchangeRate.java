@@ -0,0 +1,77 @@
+package com.expense.expensemanagement.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Rate of one currency against the anchor currency on a given day: how much of the currency one
+ * unit of the base buys. Written by ExchangeRateHistoryService from provider fetches.
+ */
+@Entity
+@Table(name = "exchange_rates", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_exchange_rates_day", columnNames = {"base_currency", "rate_date", "currency"})
+})
+public class ExchangeRate extends BaseEntity {
+
+    @NotNull
+    @Column(name = "base_currency", nullable = false, length = 3)
+    private String baseCurrency;
+
+    @NotNull
+    @Column(name = "rate_date", nullable = false)
+    private LocalDate rateDate;
+
+    @NotNull
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    @NotNull
+    @Column(name = "rate", nullable = false, precision = 24, scale = 10)
+    private BigDecimal rate;
+
+    // Constructors
+    public ExchangeRate() {}
+
+    public ExchangeRate(String baseCurrency, LocalDate rateDate, String currency, BigDecimal rate) {
+        this.baseCurrency = baseCurrency;
+        this.rateDate = rateDate;
+        this.currency = currency;
+        this.rate = rate;
+    }
+
+    // Getters and Setters
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public void setBaseCurrency(String baseCurrency) {
+        this.baseCurrency = baseCurrency;
+    }
+
+    public LocalDate getRateDate() {
+        return rateDate;
+    }
+
+    public void setRateDate(LocalDate rateDate) {
+        this.rateDate = rateDate;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getRate() {
+        return rate;
+    }
+
+    public void setRate(BigDecimal rate) {
+        this.rate = rate;
+    }
+}
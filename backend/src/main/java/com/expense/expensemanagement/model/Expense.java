@@ -12,7 +12,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", indexes = {
+    @Index(name = "idx_expenses_company_date", columnList = "company_id, expense_date"),
+    @Index(name = "idx_expenses_company_created", columnList = "company_id, created_at, id"),
+    @Index(name = "idx_expenses_company_status_date", columnList = "company_id, status, expense_date"),
+    @Index(name = "idx_expenses_company_category_date", columnList = "company_id, category, expense_date"),
+    @Index(name = "idx_expenses_employee_date", columnList = "employee_id, expense_date"),
+    @Index(name = "idx_expenses_employee_created", columnList = "employee_id, created_at, id")
+})
 public class Expense extends BaseEntity {
 
     public enum ExpenseStatus {
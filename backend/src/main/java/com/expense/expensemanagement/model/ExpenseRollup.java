@@ -0,0 +1,107 @@
+package com.expense.expensemanagement.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running count and converted total of a company's expenses per month, category and status.
+ * Kept in step with the expenses table by ExpenseRollupService so dashboards never scan it.
+ */
+@Entity
+@Table(name = "expense_rollups", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_expense_rollups_bucket", columnNames = {"company_id", "period", "category", "status"})
+})
+public class ExpenseRollup extends BaseEntity {
+
+    @NotNull
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    // First day of the month the expenses were incurred in
+    @NotNull
+    @Column(name = "period", nullable = false)
+    private LocalDate period;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private Expense.ExpenseCategory category;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Expense.ExpenseStatus status;
+
+    @NotNull
+    @Column(name = "expense_count", nullable = false)
+    private Long expenseCount;
+
+    @NotNull
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    // Constructors
+    public ExpenseRollup() {}
+
+    public ExpenseRollup(Long companyId, LocalDate period, Expense.ExpenseCategory category,
+                         Expense.ExpenseStatus status, Long expenseCount, BigDecimal totalAmount) {
+        this.companyId = companyId;
+        this.period = period;
+        this.category = category;
+        this.status = status;
+        this.expenseCount = expenseCount;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters and Setters
+    public Long getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(Long companyId) {
+        this.companyId = companyId;
+    }
+
+    public LocalDate getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(LocalDate period) {
+        this.period = period;
+    }
+
+    public Expense.ExpenseCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(Expense.ExpenseCategory category) {
+        this.category = category;
+    }
+
+    public Expense.ExpenseStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Expense.ExpenseStatus status) {
+        this.status = status;
+    }
+
+    public Long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(Long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
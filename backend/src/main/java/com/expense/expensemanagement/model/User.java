@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +13,8 @@ import java.util.List;
 @Table(name = "users", uniqueConstraints = {
     @UniqueConstraint(columnNames = "email"),
     @UniqueConstraint(columnNames = "username")
+}, indexes = {
+    @Index(name = "idx_users_updated_at", columnList = "updated_at")
 })
 public class User extends BaseEntity {
 
@@ -50,6 +53,11 @@ public class User extends BaseEntity {
     @Column(name = "is_email_verified", nullable = false)
     private Boolean isEmailVerified = false;
 
+    // Bumped whenever role, status, manager or profile change; access tokens carry the version they were issued at
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion = 0L;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "company_id", nullable = false)
     private Company company;
@@ -168,6 +176,14 @@ public class User extends BaseEntity {
         this.isEmailVerified = isEmailVerified;
     }
 
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void setTokenVersion(Long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
     public Company getCompany() {
         return company;
     }
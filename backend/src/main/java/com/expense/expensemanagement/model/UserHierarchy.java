@@ -0,0 +1,96 @@
+package com.expense.expensemanagement.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Closure table of the management hierarchy: one row for every (manager, report) pair at any
+ * depth, plus a depth 0 row linking each user to themselves.
+ * <p>
+ * Keyed by the pair itself rather than a generated id, so paths can be written with plain
+ * INSERT ... SELECT statements.
+ */
+@Entity
+@IdClass(UserHierarchy.Key.class)
+@Table(name = "user_hierarchy_paths", indexes = {
+    @Index(name = "idx_user_hierarchy_paths_descendant", columnList = "descendant_id, ancestor_id")
+})
+public class UserHierarchy {
+
+    @Id
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @NotNull
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+
+    // Constructors
+    public UserHierarchy() {}
+
+    public UserHierarchy(Long ancestorId, Long descendantId, Integer depth) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+        this.depth = depth;
+    }
+
+    // Getters and Setters
+    public Long getAncestorId() {
+        return ancestorId;
+    }
+
+    public void setAncestorId(Long ancestorId) {
+        this.ancestorId = ancestorId;
+    }
+
+    public Long getDescendantId() {
+        return descendantId;
+    }
+
+    public void setDescendantId(Long descendantId) {
+        this.descendantId = descendantId;
+    }
+
+    public Integer getDepth() {
+        return depth;
+    }
+
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+
+    public static class Key implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long ancestorId;
+        private Long descendantId;
+
+        public Key() {}
+
+        public Key(Long ancestorId, Long descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
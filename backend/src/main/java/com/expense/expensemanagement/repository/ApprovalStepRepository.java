@@ -1,11 +1,15 @@
 package com.expense.expensemanagement.repository;
 
+import com.expense.expensemanagement.dto.ExpenseSummaryDto;
 import com.expense.expensemanagement.model.ApprovalStep;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -20,6 +24,27 @@ public interface ApprovalStepRepository extends JpaRepository<ApprovalStep, Long
     @Query("SELECT a FROM ApprovalStep a WHERE a.approver.id = :approverId AND a.status = 'PENDING' ORDER BY a.createdAt ASC")
     List<ApprovalStep> findPendingApprovalsForUser(@Param("approverId") Long approverId);
 
+    // Approval inbox as list-screen projections, oldest expense first
+    String PENDING_SUMMARY_SELECT = "SELECT DISTINCT new com.expense.expensemanagement.dto.ExpenseSummaryDto(" +
+            "e.id, e.description, e.amount, e.currency, e.convertedAmount, e.convertedCurrency, " +
+            "e.category, e.expenseDate, e.status, emp.id, emp.firstName, emp.lastName, e.createdAt) " +
+            "FROM ApprovalStep a JOIN a.expense e JOIN e.employee emp " +
+            "WHERE a.approver.id = :approverId AND a.status = 'PENDING' ";
+
+    @Query(PENDING_SUMMARY_SELECT + "ORDER BY e.createdAt ASC, e.id ASC")
+    List<ExpenseSummaryDto> findPendingSummaries(@Param("approverId") Long approverId);
+
+    @Query(value = PENDING_SUMMARY_SELECT + "ORDER BY e.createdAt ASC, e.id ASC",
+           countQuery = "SELECT COUNT(DISTINCT a.expense.id) FROM ApprovalStep a WHERE a.approver.id = :approverId AND a.status = 'PENDING'")
+    Page<ExpenseSummaryDto> findPendingSummaries(@Param("approverId") Long approverId, Pageable pageable);
+
+    // Keyset pages; pass a PageRequest of size + 1 as the limit
+    @Query(PENDING_SUMMARY_SELECT + "ORDER BY e.createdAt ASC, e.id ASC")
+    List<ExpenseSummaryDto> findFirstPendingKeysetPage(@Param("approverId") Long approverId, Pageable limit);
+
+    @Query(PENDING_SUMMARY_SELECT + "AND (e.createdAt > :createdAt OR (e.createdAt = :createdAt AND e.id > :id)) ORDER BY e.createdAt ASC, e.id ASC")
+    List<ExpenseSummaryDto> findPendingKeysetPage(@Param("approverId") Long approverId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
     @Query("SELECT a FROM ApprovalStep a WHERE a.expense.id = :expenseId AND a.status = 'PENDING' ORDER BY a.stepOrder ASC")
     List<ApprovalStep> findPendingApprovalStepsForExpense(@Param("expenseId") Long expenseId);
 
@@ -1,7 +1,9 @@
 package com.expense.expensemanagement.repository;
 
 import com.expense.expensemanagement.model.Company;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -20,4 +22,12 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     List<Company> searchActiveCompanies(@Param("searchTerm") String searchTerm);
 
     boolean existsByName(String name);
+
+    @Query("SELECT c.id FROM Company c")
+    List<Long> findAllIds();
+
+    // Serializes writers of per-company rows such as expense rollups
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Company c WHERE c.id = :id")
+    Optional<Company> findByIdForUpdate(@Param("id") Long id);
 }
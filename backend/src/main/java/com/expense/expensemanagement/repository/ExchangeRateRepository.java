@@ -0,0 +1,25 @@
+package com.expense.expensemanagement.repository;
+
+import com.expense.expensemanagement.model.ExchangeRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExchangeRateRepository extends JpaRepository<ExchangeRate, Long> {
+
+    @Query("SELECT r FROM ExchangeRate r WHERE r.baseCurrency = :baseCurrency AND r.rateDate >= :fromDate ORDER BY r.rateDate ASC")
+    List<ExchangeRate> findHistory(@Param("baseCurrency") String baseCurrency, @Param("fromDate") LocalDate fromDate);
+
+    @Query("SELECT DISTINCT r.rateDate FROM ExchangeRate r WHERE r.baseCurrency = :baseCurrency AND r.rateDate >= :fromDate")
+    List<LocalDate> findRecordedDates(@Param("baseCurrency") String baseCurrency, @Param("fromDate") LocalDate fromDate);
+
+    @Modifying
+    @Query("DELETE FROM ExchangeRate r WHERE r.baseCurrency = :baseCurrency AND r.rateDate = :rateDate")
+    int deleteDay(@Param("baseCurrency") String baseCurrency, @Param("rateDate") LocalDate rateDate);
+}
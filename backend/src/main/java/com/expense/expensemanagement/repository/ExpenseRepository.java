@@ -1,22 +1,37 @@
 package com.expense.expensemanagement.repository;
 
+import com.expense.expensemanagement.dto.ExpenseSummaryDto;
 import com.expense.expensemanagement.model.Expense;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ExpenseRepository extends JpaRepository<Expense, Long> {
+public interface ExpenseRepository extends JpaRepository<Expense, Long>, JpaSpecificationExecutor<Expense> {
 
-    List<Expense> findByEmployeeIdAndIsActiveTrueOrderByCreatedAtDesc(Long employeeId);
+    List<Expense> findByEmployeeIdOrderByCreatedAtDesc(Long employeeId);
+
+    // Listings load employee and company with the page; the step and comment collections are batch fetched
+    @Override
+    @EntityGraph(attributePaths = {"employee", "company"})
+    Page<Expense> findAll(Specification<Expense> spec, Pageable pageable);
     
-    Page<Expense> findByEmployeeIdAndIsActiveTrueOrderByCreatedAtDesc(Long employeeId, Pageable pageable);
+    Page<Expense> findByEmployeeIdOrderByCreatedAtDesc(Long employeeId, Pageable pageable);
 
     List<Expense> findByEmployeeIdAndStatusOrderByCreatedAtDesc(Long employeeId, Expense.ExpenseStatus status);
 
@@ -24,6 +39,73 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
     Page<Expense> findByCompanyIdOrderByCreatedAtDesc(Long companyId, Pageable pageable);
 
+    // List-screen projections: one SELECT joined to the employee, no entities in the persistence context
+    String SUMMARY_SELECT = "SELECT new com.expense.expensemanagement.dto.ExpenseSummaryDto(" +
+            "e.id, e.description, e.amount, e.currency, e.convertedAmount, e.convertedCurrency, " +
+            "e.category, e.expenseDate, e.status, emp.id, emp.firstName, emp.lastName, e.createdAt) " +
+            "FROM Expense e JOIN e.employee emp ";
+
+    @Query(value = SUMMARY_SELECT + "WHERE emp.id = :employeeId ORDER BY e.createdAt DESC, e.id DESC",
+           countQuery = "SELECT COUNT(e) FROM Expense e WHERE e.employee.id = :employeeId")
+    Page<ExpenseSummaryDto> findSummariesByEmployee(@Param("employeeId") Long employeeId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE emp.id = :employeeId ORDER BY e.createdAt DESC, e.id DESC")
+    Slice<ExpenseSummaryDto> findSummarySliceByEmployee(@Param("employeeId") Long employeeId, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE e.company.id = :companyId ORDER BY e.createdAt DESC, e.id DESC",
+           countQuery = "SELECT COUNT(e) FROM Expense e WHERE e.company.id = :companyId")
+    Page<ExpenseSummaryDto> findSummariesByCompany(@Param("companyId") Long companyId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE e.company.id = :companyId ORDER BY e.createdAt DESC, e.id DESC")
+    Slice<ExpenseSummaryDto> findSummarySliceByCompany(@Param("companyId") Long companyId, Pageable pageable);
+
+    // Everyone below the manager at any depth, through the user_hierarchy_paths closure table
+    String TEAM_SUMMARY_SELECT = SUMMARY_SELECT +
+            "JOIN UserHierarchy h ON h.descendantId = emp.id WHERE h.ancestorId = :managerId AND h.depth > 0 ";
+
+    @Query(value = TEAM_SUMMARY_SELECT + "ORDER BY e.createdAt DESC, e.id DESC",
+           countQuery = "SELECT COUNT(e) FROM Expense e, UserHierarchy h WHERE h.descendantId = e.employee.id AND h.ancestorId = :managerId AND h.depth > 0")
+    Page<ExpenseSummaryDto> findTeamSummaries(@Param("managerId") Long managerId, Pageable pageable);
+
+    @Query(TEAM_SUMMARY_SELECT + "ORDER BY e.createdAt DESC, e.id DESC")
+    Slice<ExpenseSummaryDto> findTeamSummarySlice(@Param("managerId") Long managerId, Pageable pageable);
+
+    // Keyset pages, newest first; pass a PageRequest of size + 1 as the limit
+    @Query(SUMMARY_SELECT + "WHERE emp.id = :employeeId ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseSummaryDto> findFirstKeysetPageByEmployee(@Param("employeeId") Long employeeId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE emp.id = :employeeId AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseSummaryDto> findKeysetPageByEmployee(@Param("employeeId") Long employeeId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE e.company.id = :companyId ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseSummaryDto> findFirstKeysetPageByCompany(@Param("companyId") Long companyId, Pageable limit);
+
+    @Query(SUMMARY_SELECT + "WHERE e.company.id = :companyId AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseSummaryDto> findKeysetPageByCompany(@Param("companyId") Long companyId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    @Query(TEAM_SUMMARY_SELECT + "ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseSummaryDto> findFirstKeysetPageByTeam(@Param("managerId") Long managerId, Pageable limit);
+
+    @Query(TEAM_SUMMARY_SELECT + "AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) ORDER BY e.createdAt DESC, e.id DESC")
+    List<ExpenseSummaryDto> findKeysetPageByTeam(@Param("managerId") Long managerId, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    // Forward-only export cursors: rows arrive in fetch-size chunks and are read-only, so nothing is snapshotted
+    String EXPORT_SELECT = "SELECT e FROM Expense e JOIN FETCH e.employee WHERE e.company.id = :companyId ";
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "ORDER BY e.expenseDate ASC, e.id ASC")
+    Stream<Expense> streamForExport(@Param("companyId") Long companyId);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "AND e.expenseDate BETWEEN :startDate AND :endDate ORDER BY e.expenseDate ASC, e.id ASC")
+    Stream<Expense> streamForExport(@Param("companyId") Long companyId, @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
     @Query("SELECT e FROM Expense e WHERE e.employee.manager.id = :managerId AND e.status = :status ORDER BY e.createdAt DESC")
     List<Expense> findExpensesForManagerApproval(@Param("managerId") Long managerId, @Param("status") Expense.ExpenseStatus status);
 
@@ -39,9 +121,9 @@ public interface ExpenseRepository extends JpaRepository<Expense, Long> {
     @Query("SELECT e FROM Expense e WHERE e.employee.company.id = :companyId AND e.category = :category AND e.status = :status ORDER BY e.createdAt DESC")
     List<Expense> findExpensesByCompanyCategoryAndStatus(@Param("companyId") Long companyId, @Param("category") Expense.ExpenseCategory category, @Param("status") Expense.ExpenseStatus status);
 
-    @Query("SELECT COUNT(e) FROM Expense e WHERE e.employee.company.id = :companyId AND e.status = :status")
-    Long countExpensesByCompanyAndStatus(@Param("companyId") Long companyId, @Param("status") Expense.ExpenseStatus status);
-
-    @Query("SELECT SUM(e.convertedAmount) FROM Expense e WHERE e.employee.company.id = :companyId AND e.status = :status")
-    Double sumExpenseAmountsByCompanyAndStatus(@Param("companyId") Long companyId, @Param("status") Expense.ExpenseStatus status);
+    // Source of ExpenseRollup rows: year, month, category, status, count and converted total
+    @Query("SELECT YEAR(e.expenseDate), MONTH(e.expenseDate), e.category, e.status, COUNT(e), COALESCE(SUM(e.convertedAmount), 0) " +
+           "FROM Expense e WHERE e.company.id = :companyId " +
+           "GROUP BY YEAR(e.expenseDate), MONTH(e.expenseDate), e.category, e.status")
+    List<Object[]> aggregateForRollup(@Param("companyId") Long companyId);
 }
@@ -0,0 +1,36 @@
+package com.expense.expensemanagement.repository;
+
+import com.expense.expensemanagement.dto.ExpenseRollupDto;
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.ExpenseRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ExpenseRollupRepository extends JpaRepository<ExpenseRollup, Long> {
+
+    @Query("SELECT new com.expense.expensemanagement.dto.ExpenseRollupDto(r.period, r.category, r.status, r.expenseCount, r.totalAmount) " +
+           "FROM ExpenseRollup r WHERE r.companyId = :companyId AND r.period BETWEEN :fromPeriod AND :toPeriod AND r.expenseCount > 0 " +
+           "ORDER BY r.period ASC, r.category ASC, r.status ASC")
+    List<ExpenseRollupDto> findDashboard(@Param("companyId") Long companyId, @Param("fromPeriod") LocalDate fromPeriod, @Param("toPeriod") LocalDate toPeriod);
+
+    // Applies a delta to an existing bucket; returns 0 when the bucket has no row yet
+    @Modifying
+    @Query("UPDATE ExpenseRollup r SET r.expenseCount = r.expenseCount + :count, r.totalAmount = r.totalAmount + :amount, " +
+           "r.updatedAt = CURRENT_TIMESTAMP WHERE r.companyId = :companyId AND r.period = :period " +
+           "AND r.category = :category AND r.status = :status")
+    int addToBucket(@Param("companyId") Long companyId, @Param("period") LocalDate period,
+                    @Param("category") Expense.ExpenseCategory category, @Param("status") Expense.ExpenseStatus status,
+                    @Param("count") long count, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("DELETE FROM ExpenseRollup r WHERE r.companyId = :companyId")
+    int deleteByCompany(@Param("companyId") Long companyId);
+}
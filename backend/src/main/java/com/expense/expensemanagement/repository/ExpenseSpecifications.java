@@ -0,0 +1,69 @@
+package com.expense.expensemanagement.repository;
+
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.UserHierarchy;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Predicates for dynamic expense searches. Each one filters on a plain column of the expenses
+ * table, so combinations stay within the composite indexes declared on {@link Expense}.
+ */
+public final class ExpenseSpecifications {
+
+    private ExpenseSpecifications() {}
+
+    public static Specification<Expense> inCompany(Long companyId) {
+        return (root, query, cb) -> cb.equal(root.get("company").get("id"), companyId);
+    }
+
+    public static Specification<Expense> byEmployee(Long employeeId) {
+        return (root, query, cb) -> cb.equal(root.get("employee").get("id"), employeeId);
+    }
+
+    /**
+     * The manager's own expenses and those of everyone below them, joined to the user_hierarchy_paths
+     * closure table as the team listings are. A path is unique per (ancestor, descendant), so the
+     * join adds no duplicate rows.
+     */
+    public static Specification<Expense> inHierarchyOf(Long managerId) {
+        return (root, query, cb) -> {
+            Root<UserHierarchy> hierarchy = query.from(UserHierarchy.class);
+            return cb.and(cb.equal(hierarchy.get("ancestorId"), managerId),
+                    cb.equal(hierarchy.get("descendantId"), root.get("employee").get("id")));
+        };
+    }
+
+    public static Specification<Expense> hasCategory(Expense.ExpenseCategory category) {
+        return category == null ? null : (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Expense> hasStatus(Expense.ExpenseStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Expense> expenseDateFrom(LocalDate startDate) {
+        return startDate == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expenseDate"), startDate);
+    }
+
+    public static Specification<Expense> expenseDateTo(LocalDate endDate) {
+        return endDate == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("expenseDate"), endDate);
+    }
+
+    public static Specification<Expense> descriptionContains(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(text.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("description")), pattern, '\\');
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,38 @@
+package com.expense.expensemanagement.repository;
+
+import com.expense.expensemanagement.model.RefreshToken;
+import com.expense.expensemanagement.security.RefreshTokenGrant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("SELECT new com.expense.expensemanagement.security.RefreshTokenGrant(" +
+           "rt.tokenHash, rt.familyId, rt.expiresAt, u.id, u.username, u.email, u.firstName, u.lastName, " +
+           "u.isActive, r.roleType, c.id, c.name, u.tokenVersion) " +
+           "FROM RefreshToken rt JOIN rt.user u JOIN u.role r JOIN u.company c " +
+           "WHERE rt.tokenHash = :tokenHash AND rt.usedAt IS NULL AND rt.isRevoked = false")
+    Optional<RefreshTokenGrant> findActiveGrant(@Param("tokenHash") String tokenHash);
+
+    @Query("SELECT rt.familyId FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash")
+    Optional<String> findFamilyIdByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.usedAt = :usedAt WHERE rt.tokenHash = :tokenHash AND rt.usedAt IS NULL AND rt.isRevoked = false")
+    int markUsed(@Param("tokenHash") String tokenHash, @Param("usedAt") LocalDateTime usedAt);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.familyId = :familyId")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,49 @@
+package com.expense.expensemanagement.repository;
+
+import com.expense.expensemanagement.model.UserHierarchy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserHierarchyRepository extends JpaRepository<UserHierarchy, UserHierarchy.Key> {
+
+    @Query("SELECT h.descendantId FROM UserHierarchy h WHERE h.ancestorId = :userId")
+    List<Long> findSubtreeIds(@Param("userId") Long userId);
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_hierarchy_paths (ancestor_id, descendant_id, depth) VALUES (:userId, :userId, 0)",
+           nativeQuery = true)
+    int insertSelfPath(@Param("userId") Long userId);
+
+    // Links a new leaf to every ancestor of its manager
+    @Modifying
+    @Query(value = "INSERT INTO user_hierarchy_paths (ancestor_id, descendant_id, depth) " +
+                   "SELECT h.ancestor_id, :userId, h.depth + 1 FROM user_hierarchy_paths h " +
+                   "WHERE h.descendant_id = :managerId", nativeQuery = true)
+    int insertPathsBelow(@Param("managerId") Long managerId, @Param("userId") Long userId);
+
+    // Detaches the subtree rooted at userId from everything above it, keeping the paths inside it.
+    // MySQL only lets a DELETE read its own table through derived tables, which it materializes first.
+    @Modifying
+    @Query(value = "DELETE FROM user_hierarchy_paths " +
+                   "WHERE ancestor_id IN (SELECT ancestor_id FROM (SELECT ancestor_id FROM user_hierarchy_paths " +
+                   "WHERE descendant_id = :userId AND depth > 0) above) " +
+                   "AND descendant_id IN (SELECT descendant_id FROM (SELECT descendant_id FROM user_hierarchy_paths " +
+                   "WHERE ancestor_id = :userId) below)", nativeQuery = true)
+    int deletePathsIntoSubtree(@Param("userId") Long userId);
+
+    // Attaches the subtree rooted at userId under every ancestor of managerId
+    @Modifying
+    @Query(value = "INSERT INTO user_hierarchy_paths (ancestor_id, descendant_id, depth) " +
+                   "SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1 " +
+                   "FROM user_hierarchy_paths above CROSS JOIN user_hierarchy_paths below " +
+                   "WHERE above.descendant_id = :managerId AND below.ancestor_id = :userId", nativeQuery = true)
+    int insertPathsIntoSubtree(@Param("managerId") Long managerId, @Param("userId") Long userId);
+}
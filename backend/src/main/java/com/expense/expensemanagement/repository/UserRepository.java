@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +18,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    @Query("SELECT u FROM User u WHERE u.username = :login OR u.email = :login")
+    List<User> findByUsernameOrEmail(@Param("login") String login);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
@@ -33,6 +37,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.manager.id = :managerId AND u.isActive = true ORDER BY u.firstName, u.lastName")
     List<User> findActiveSubordinatesByManager(@Param("managerId") Long managerId);
 
+    @Query("SELECT u.id, m.id FROM User u LEFT JOIN u.manager m")
+    List<Object[]> findAllManagerLinks();
+
+    @Query("SELECT u.id, u.tokenVersion FROM User u WHERE u.updatedAt >= :since AND u.tokenVersion > 0")
+    List<Object[]> findTokenVersionsUpdatedSince(@Param("since") LocalDateTime since);
+
     @Query("SELECT u FROM User u WHERE u.company.id = :companyId AND (u.firstName LIKE %:searchTerm% OR u.lastName LIKE %:searchTerm% OR u.email LIKE %:searchTerm%) AND u.isActive = true")
     List<User> searchUsersInCompany(@Param("companyId") Long companyId, @Param("searchTerm") String searchTerm);
 }
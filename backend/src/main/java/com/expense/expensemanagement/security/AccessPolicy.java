@@ -0,0 +1,48 @@
+package com.expense.expensemanagement.security;
+
+import com.expense.expensemanagement.model.ApprovalStep;
+import com.expense.expensemanagement.model.Expense;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Permission checks shared by the controllers, through {@code @PreAuthorize("@accessPolicy...")},
+ * and the services. Decisions are made from the authenticated principal's claims (id, role,
+ * company), so no user lookup is needed.
+ */
+@Component
+public class AccessPolicy {
+
+    public boolean canApprove(UserPrincipal principal) {
+        return principal.isManager() || principal.isAdmin();
+    }
+
+    public boolean canViewTeam(UserPrincipal principal) {
+        return principal.isManager() || principal.isAdmin();
+    }
+
+    public boolean canManageCompany(UserPrincipal principal) {
+        return principal.isAdmin();
+    }
+
+    public boolean isOwner(UserPrincipal principal, Expense expense) {
+        return expense.getEmployee().getId().equals(principal.getId());
+    }
+
+    public boolean canViewExpense(UserPrincipal principal, Expense expense) {
+        return isOwner(principal, expense)
+                || principal.isAdmin()
+                || expense.getCompany().getId().equals(principal.getCompanyId());
+    }
+
+    public boolean canViewWorkflow(UserPrincipal principal, Expense expense, List<ApprovalStep> steps) {
+        return isOwner(principal, expense)
+                || principal.isAdmin()
+                || steps.stream().anyMatch(step -> step.getApprover().getId().equals(principal.getId()));
+    }
+
+    public boolean canEscalate(UserPrincipal principal) {
+        return principal.isManager() || principal.isAdmin();
+    }
+}
@@ -0,0 +1,50 @@
+package com.expense.expensemanagement.security;
+
+import com.expense.expensemanagement.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // The forwarded client address when server.forward-headers-strategy trusts the proxy in front
+        long wait = authRateLimiter.tryAcquireForClient(request.getRemoteAddr());
+        if (wait > 0) {
+            writeTooManyRequests(response, wait);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Same body as the per-login limit in AuthController
+    private void writeTooManyRequests(HttpServletResponse response, long waitNanos) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(RateLimiter.toRetryAfterSeconds(waitNanos)));
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(AuthRateLimiter.TOO_MANY_ATTEMPTS));
+    }
+}
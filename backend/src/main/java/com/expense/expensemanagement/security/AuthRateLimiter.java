@@ -0,0 +1,70 @@
+package com.expense.expensemanagement.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Rate limits for the unauthenticated /api/auth endpoints, per client address and per login identifier.
+ */
+@Component
+public class AuthRateLimiter {
+
+    public static final String TOO_MANY_ATTEMPTS = "Too many authentication attempts, please retry later";
+
+    private final boolean enabled;
+    private final RateLimiter clientLimiter;
+    private final RateLimiter loginLimiter;
+    private final Counter clientRejected;
+    private final Counter loginRejected;
+
+    public AuthRateLimiter(@Value("${auth.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${auth.rate-limit.client.capacity:30}") int clientCapacity,
+                           @Value("${auth.rate-limit.client.refill-period:1m}") Duration clientRefillPeriod,
+                           @Value("${auth.rate-limit.login.capacity:5}") int loginCapacity,
+                           @Value("${auth.rate-limit.login.refill-period:1m}") Duration loginRefillPeriod,
+                           @Value("${auth.rate-limit.max-keys:100000}") long maxKeys,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.clientLimiter = new RateLimiter(clientCapacity, clientRefillPeriod, maxKeys);
+        this.loginLimiter = new RateLimiter(loginCapacity, loginRefillPeriod, maxKeys);
+
+        this.clientRejected = Counter.builder("auth.rate_limit.rejected").tag("key", "client").register(meterRegistry);
+        this.loginRejected = Counter.builder("auth.rate_limit.rejected").tag("key", "login").register(meterRegistry);
+        Gauge.builder("auth.rate_limit.keys", clientLimiter, RateLimiter::size).tag("key", "client").register(meterRegistry);
+        Gauge.builder("auth.rate_limit.keys", loginLimiter, RateLimiter::size).tag("key", "login").register(meterRegistry);
+    }
+
+    /**
+     * @return 0 if allowed, otherwise the nanoseconds the client should wait
+     */
+    public long tryAcquireForClient(String clientAddress) {
+        if (!enabled || clientAddress == null) {
+            return 0;
+        }
+        long wait = clientLimiter.tryAcquire(clientAddress);
+        if (wait > 0) {
+            clientRejected.increment();
+        }
+        return wait;
+    }
+
+    /**
+     * @return 0 if allowed, otherwise the nanoseconds the caller should wait
+     */
+    public long tryAcquireForLogin(String usernameOrEmail) {
+        if (!enabled || usernameOrEmail == null) {
+            return 0;
+        }
+        long wait = loginLimiter.tryAcquire(usernameOrEmail.trim().toLowerCase(Locale.ROOT));
+        if (wait > 0) {
+            loginRejected.increment();
+        }
+        return wait;
+    }
+}
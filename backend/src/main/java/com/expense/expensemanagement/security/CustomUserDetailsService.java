@@ -2,34 +2,146 @@ package com.expense.expensemanagement.security;
 
 import com.expense.expensemanagement.model.User;
 import com.expense.expensemanagement.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    UserChangeTracker userChangeTracker;
+
+    // Principals by user id, and login identifiers (username or email) resolved to user ids
+    private final Cache<Long, UserPrincipal> principalsById;
+    private final Cache<String, Long> userIdsByLogin;
+
+    // Login identifiers recently found not to exist, so repeated attempts skip the database
+    private final Cache<String, Boolean> unknownLogins;
+
+    public CustomUserDetailsService(@Value("${auth.principal-cache.max-size:50000}") long maxSize,
+                                    @Value("${auth.principal-cache.ttl:10m}") Duration ttl,
+                                    @Value("${auth.unknown-login-cache.max-size:100000}") long unknownMaxSize,
+                                    @Value("${auth.unknown-login-cache.ttl:30s}") Duration unknownTtl,
+                                    MeterRegistry meterRegistry) {
+        this.principalsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.userIdsByLogin = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.unknownLogins = Caffeine.newBuilder()
+                .maximumSize(unknownMaxSize)
+                .expireAfterWrite(unknownTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, principalsById, "principalsById");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByLogin, "principalIdsByLogin");
+        CaffeineCacheMetrics.monitor(meterRegistry, unknownLogins, "unknownLogins");
+    }
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(usernameOrEmail)
-                .orElse(userRepository.findByEmail(usernameOrEmail)
-                        .orElseThrow(() -> new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail)));
+        String login = usernameOrEmail != null ? usernameOrEmail.trim() : "";
+
+        Long cachedId = userIdsByLogin.getIfPresent(login);
+        if (cachedId != null) {
+            UserPrincipal cached = principalsById.getIfPresent(cachedId);
+            if (isCurrent(cached)) {
+                return cached;
+            }
+        }
+
+        if (login.isEmpty() || unknownLogins.getIfPresent(login) != null) {
+            throw new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail);
+        }
 
-        return UserPrincipal.create(user);
+        // Username and email are both unique; a username match wins if they belong to different users
+        List<User> matches = userRepository.findByUsernameOrEmail(login);
+        User user = matches.stream()
+                .filter(candidate -> login.equals(candidate.getUsername()))
+                .findFirst()
+                .orElse(matches.isEmpty() ? null : matches.get(0));
+
+        if (user == null) {
+            unknownLogins.put(login, Boolean.TRUE);
+            throw new UsernameNotFoundException("User not found with username or email: " + usernameOrEmail);
+        }
+
+        UserPrincipal principal = UserPrincipal.create(user);
+        principalsById.put(principal.getId(), principal);
+        userIdsByLogin.put(login, principal.getId());
+        return principal;
     }
 
     @Transactional
     public UserDetails loadUserById(Long id) {
+        UserPrincipal cached = principalsById.getIfPresent(id);
+        if (isCurrent(cached)) {
+            return cached;
+        }
+
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
 
-        return UserPrincipal.create(user);
+        UserPrincipal principal = UserPrincipal.create(user);
+        principalsById.put(id, principal);
+        return principal;
+    }
+
+    /**
+     * Called after a successful login whose stored hash uses a weaker BCrypt cost than configured.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        UserPrincipal current = (UserPrincipal) userDetails;
+        User user = userRepository.findById(current.getId())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + current.getId()));
+
+        user.setPassword(newPassword);
+        user = userRepository.save(user);
+
+        UserPrincipal principal = UserPrincipal.create(user);
+        principalsById.put(principal.getId(), principal);
+        return principal;
+    }
+
+    // Another node may have changed the user; its version reaches this node before the cache entry expires
+    private boolean isCurrent(UserPrincipal cached) {
+        return cached != null && userChangeTracker.isCurrent(cached.getId(), cached.getTokenVersion());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        principalsById.invalidate(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserCreated(UserCreatedEvent event) {
+        unknownLogins.invalidate(event.getUsername());
+        unknownLogins.invalidate(event.getEmail());
     }
 }
@@ -4,17 +4,22 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
+import org.springframework.http.server.PathContainer;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
@@ -24,7 +29,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
-    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    @Autowired
+    private UserChangeTracker userChangeTracker;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenFailureLog tokenFailureLog;
+
+    @Value("${jwt.stateless-authentication:true}")
+    private boolean statelessAuthentication;
+
+    // Routes that never need an authenticated principal, parsed once
+    private static final List<PathPattern> PUBLIC_PATTERNS = Arrays.stream(SecurityConfig.PUBLIC_PATHS)
+            .map(PathPatternParser.defaultInstance::parse)
+            .toList();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getServletPath());
+        for (PathPattern pattern : PUBLIC_PATTERNS) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
@@ -32,10 +63,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
+            Optional<VerifiedToken> verifiedToken = StringUtils.hasText(jwt)
+                    ? tokenProvider.verifyToken(jwt) : Optional.empty();
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            if (verifiedToken.isPresent() && !tokenRevocationService.isRevoked(verifiedToken.get().getTokenId())) {
+                UserDetails userDetails = loadUserFromToken(verifiedToken.get());
                 UsernamePasswordAuthenticationToken authentication = 
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -43,12 +75,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception ex) {
-            logger.error("Could not set user authentication in security context", ex);
+            tokenFailureLog.record(TokenFailureLog.Reason.USER_LOOKUP, ex);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails loadUserFromToken(VerifiedToken token) {
+        // Trust the signed claims unless the user has changed since the token was issued
+        if (statelessAuthentication && token.getRole() != null && token.getCompanyId() != null
+                && userChangeTracker.isCurrent(token.getUserId(), token.getTokenVersion())) {
+            return UserPrincipal.create(token.getUserId(), token.getUsername(), token.getEmail(),
+                    token.getRole(), token.getCompanyId(), token.getTokenVersion());
+        }
+
+        return customUserDetailsService.loadUserById(token.getUserId());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
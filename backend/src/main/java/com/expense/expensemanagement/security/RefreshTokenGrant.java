@@ -0,0 +1,106 @@
+package com.expense.expensemanagement.security;
+
+import com.expense.expensemanagement.model.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a refresh token entitles its holder to: the token's family and expiry plus the user
+ * details needed to mint a new access token, read in one query without loading the user graph.
+ */
+public final class RefreshTokenGrant {
+
+    private final String tokenHash;
+    private final String familyId;
+    private final LocalDateTime expiresAt;
+    private final Long userId;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final boolean userActive;
+    private final String role;
+    private final Long companyId;
+    private final String companyName;
+    private final Long tokenVersion;
+
+    public RefreshTokenGrant(String tokenHash, String familyId, LocalDateTime expiresAt, Long userId,
+                             String username, String email, String firstName, String lastName,
+                             Boolean userActive, Role.RoleType roleType, Long companyId, String companyName,
+                             Long tokenVersion) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.expiresAt = expiresAt;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.userActive = Boolean.TRUE.equals(userActive);
+        this.role = roleType != null ? roleType.name() : Role.RoleType.EMPLOYEE.name();
+        this.companyId = companyId;
+        this.companyName = companyName;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public RefreshTokenGrant withToken(String newTokenHash, LocalDateTime newExpiresAt) {
+        return new RefreshTokenGrant(newTokenHash, familyId, newExpiresAt, userId, username, email,
+                firstName, lastName, userActive, Role.RoleType.valueOf(role), companyId, companyName, tokenVersion);
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public boolean isUserActive() {
+        return userActive;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getCompanyId() {
+        return companyId;
+    }
+
+    public String getCompanyName() {
+        return companyName;
+    }
+
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+}
@@ -0,0 +1,68 @@
+package com.expense.expensemanagement.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts rejected bearer tokens by reason and logs one summary per interval, so a client
+ * replaying a bad or expired token cannot flood the log. Individual rejections are only logged
+ * at TRACE, which the application's DEBUG logging leaves off.
+ */
+@Component
+public class TokenFailureLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenFailureLog.class);
+
+    public enum Reason {
+        MALFORMED, EXPIRED, UNSUPPORTED, BAD_SIGNATURE, EMPTY, USER_LOOKUP
+    }
+
+    private final Map<Reason, LongAdder> pending = new EnumMap<>(Reason.class);
+    private final Map<Reason, Counter> counters = new EnumMap<>(Reason.class);
+
+    public TokenFailureLog(MeterRegistry meterRegistry) {
+        for (Reason reason : Reason.values()) {
+            pending.put(reason, new LongAdder());
+            counters.put(reason, Counter.builder("auth.jwt.rejected")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    public void record(Reason reason) {
+        pending.get(reason).increment();
+        counters.get(reason).increment();
+        logger.trace("Rejected JWT token: {}", reason);
+    }
+
+    public void record(Reason reason, Exception ex) {
+        pending.get(reason).increment();
+        counters.get(reason).increment();
+        logger.trace("Rejected JWT token: {}", reason, ex);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.failure-log-interval:PT1M}")
+    public void logSummary() {
+        StringJoiner summary = new StringJoiner(", ");
+        long total = 0;
+        for (Map.Entry<Reason, LongAdder> entry : pending.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count > 0) {
+                summary.add(entry.getKey().name().toLowerCase() + "=" + count);
+                total += count;
+            }
+        }
+        if (total > 0) {
+            logger.warn("Rejected {} JWT tokens since the last summary ({})", total, summary);
+        }
+    }
+}
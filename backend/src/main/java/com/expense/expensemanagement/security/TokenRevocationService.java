@@ -0,0 +1,127 @@
+package com.expense.expensemanagement.security;
+
+import com.expense.expensemanagement.model.RevokedToken;
+import com.expense.expensemanagement.repository.RevokedTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Revocation list for access tokens, keyed by the token's jti claim. Every node keeps a Bloom filter
+ * of revoked ids so the per-request check is a few bit reads; only filter hits (real revocations
+ * and the occasional false positive) are confirmed against the revoked_tokens table. Nodes pick up
+ * each other's revocations on the next sync.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration syncOverlap;
+
+    private volatile BloomFilter filter;
+    private volatile LocalDateTime lastSync;
+
+    // Confirmed answers for filter hits, kept no longer than one sync interval
+    private final Cache<String, Boolean> confirmed;
+    private final Counter filterHits;
+    private final Counter falsePositives;
+
+    public TokenRevocationService(@Value("${auth.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${auth.revocation.sync-interval:PT10S}") Duration syncInterval,
+                                  MeterRegistry meterRegistry) {
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.syncOverlap = syncInterval.multipliedBy(2);
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.confirmed = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(syncInterval)
+                .build();
+        this.filterHits = Counter.builder("auth.revocation.filter_hits").register(meterRegistry);
+        this.falsePositives = Counter.builder("auth.revocation.false_positives").register(meterRegistry);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+
+        filterHits.increment();
+        Boolean revoked = confirmed.get(tokenId, revokedTokenRepository::existsByTokenId);
+        if (!Boolean.TRUE.equals(revoked)) {
+            falsePositives.increment();
+            return false;
+        }
+        return true;
+    }
+
+    @Transactional
+    public void revoke(VerifiedToken token) {
+        if (token.getTokenId() == null || revokedTokenRepository.existsByTokenId(token.getTokenId())) {
+            return;
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(token.getExpiresAt()), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(token.getTokenId(), token.getUserId(), expiresAt));
+        filter.add(token.getTokenId());
+        confirmed.put(token.getTokenId(), Boolean.TRUE);
+    }
+
+    /**
+     * Rebuilds the filter from every unexpired revocation, which also drops expired ids.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${auth.revocation.rebuild-cron:0 0 * * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        BloomFilter rebuilt = new BloomFilter(expectedRevocations, falsePositiveRate);
+        revokedTokenRepository.findUnexpiredTokenIds(now).forEach(rebuilt::add);
+
+        // Keep anything revoked locally while the rebuild was running
+        revokedTokenRepository.findTokenIdsRevokedSince(now.minus(syncOverlap), now).forEach(rebuilt::add);
+        this.filter = rebuilt;
+        this.lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval:PT10S}", initialDelayString = "${auth.revocation.sync-interval:PT10S}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync != null ? lastSync.minus(syncOverlap) : now.minus(syncOverlap);
+        BloomFilter current = filter;
+        revokedTokenRepository.findTokenIdsRevokedSince(since, now).forEach(current::add);
+        this.lastSync = now;
+    }
+
+    @Scheduled(cron = "${auth.revocation.cleanup-cron:0 45 3 * * *}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired token revocations", deleted);
+        }
+    }
+}
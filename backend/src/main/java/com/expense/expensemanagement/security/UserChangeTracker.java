@@ -0,0 +1,84 @@
+package com.expense.expensemanagement.security;
+
+import com.expense.expensemanagement.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Current token versions (users.token_version) of users changed within the last JWT lifetime, so
+ * tokens issued before a change are no longer trusted on their claims alone. A user missing here
+ * has not changed for longer than any token lives, so every unexpired token of theirs is current.
+ * Changes made on this node apply when their transaction commits; nodes pick up each other's
+ * changes on the next sync, as with the revocation list.
+ */
+@Component
+public class UserChangeTracker {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Duration tokenLifetime;
+    private final Duration syncOverlap;
+    private final Cache<Long, Long> versions;
+
+    private volatile LocalDateTime lastSync;
+
+    public UserChangeTracker(@Value("${jwt.expiration}") long jwtExpirationInMs,
+                             @Value("${auth.user-changes.sync-interval:PT10S}") Duration syncInterval) {
+        this.tokenLifetime = Duration.ofMillis(jwtExpirationInMs);
+        this.syncOverlap = syncInterval.multipliedBy(2);
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(tokenLifetime)
+                .build();
+    }
+
+    /**
+     * Whether a token carrying the given version (null for tokens that predate versions) reflects the user as they are now.
+     */
+    public boolean isCurrent(Long userId, Long tokenVersion) {
+        Long current = versions.getIfPresent(userId);
+        return current == null || current.equals(tokenVersion);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        record(event.getUserId(), event.getTokenVersion());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        userRepository.findTokenVersionsUpdatedSince(now.minus(tokenLifetime))
+                .forEach(row -> record((Long) row[0], (Long) row[1]));
+        this.lastSync = now;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.user-changes.sync-interval:PT10S}", initialDelayString = "${auth.user-changes.sync-interval:PT10S}")
+    @Transactional(readOnly = true)
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = lastSync != null ? lastSync.minus(syncOverlap) : now.minus(tokenLifetime);
+        userRepository.findTokenVersionsUpdatedSince(since)
+                .forEach(row -> record((Long) row[0], (Long) row[1]));
+        this.lastSync = now;
+    }
+
+    private void record(Long userId, Long tokenVersion) {
+        if (userId != null && tokenVersion != null) {
+            // Versions only grow; a sync that read the row before a local change must not undo it
+            versions.asMap().merge(userId, tokenVersion, Math::max);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.expense.expensemanagement.security;
+
+/**
+ * Published when something a {@link UserPrincipal} is built from (role, status, manager) changes.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final Long tokenVersion;
+
+    public UserChangedEvent(Long userId, Long tokenVersion) {
+        this.userId = userId;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+}
@@ -0,0 +1,23 @@
+package com.expense.expensemanagement.security;
+
+/**
+ * Published when a new user account is created, so login lookups cached as unknown can be dropped.
+ */
+public class UserCreatedEvent {
+
+    private final String username;
+    private final String email;
+
+    public UserCreatedEvent(String username, String email) {
+        this.username = username;
+        this.email = email;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+}
@@ -16,16 +16,18 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private String role;
     private Long companyId;
+    private Long tokenVersion;
     private Collection<? extends GrantedAuthority> authorities;
 
     public UserPrincipal(Long id, String username, String email, String password, 
-                        String role, Long companyId, Collection<? extends GrantedAuthority> authorities) {
+                        String role, Long companyId, Long tokenVersion, Collection<? extends GrantedAuthority> authorities) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.password = password;
         this.role = role;
         this.companyId = companyId;
+        this.tokenVersion = tokenVersion;
         this.authorities = authorities;
     }
 
@@ -40,10 +42,19 @@ public class UserPrincipal implements UserDetails {
                 user.getPassword(),
                 user.getRole() != null ? user.getRole().getRoleType().name() : "EMPLOYEE",
                 user.getCompany() != null ? user.getCompany().getId() : null,
+                user.getTokenVersion(),
                 authorities
         );
     }
 
+    public static UserPrincipal create(Long id, String username, String email, String role, Long companyId,
+                                       Long tokenVersion) {
+        String roleName = role != null ? role : "EMPLOYEE";
+        Collection<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + roleName));
+
+        return new UserPrincipal(id, username, email, null, roleName, companyId, tokenVersion, authorities);
+    }
+
     public Long getId() {
         return id;
     }
@@ -60,6 +71,18 @@ public class UserPrincipal implements UserDetails {
         return companyId;
     }
 
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+
+    public boolean isManager() {
+        return "MANAGER".equals(role);
+    }
+
     @Override
     public String getUsername() {
         return username;
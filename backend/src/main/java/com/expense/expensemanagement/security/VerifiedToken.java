@@ -0,0 +1,86 @@
+package com.expense.expensemanagement.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Immutable view of the claims of a JWT whose signature and expiry have been checked.
+ */
+public final class VerifiedToken {
+
+    private final String tokenId;
+    private final Long userId;
+    private final String username;
+    private final String email;
+    private final String role;
+    private final Long companyId;
+    private final Long tokenVersion;
+    private final long issuedAt;
+    private final long expiresAt;
+
+    public VerifiedToken(String tokenId, Long userId, String username, String email, String role,
+                         Long companyId, Long tokenVersion, long issuedAt, long expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+        this.companyId = companyId;
+        this.tokenVersion = tokenVersion;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    static VerifiedToken from(Claims claims) {
+        return new VerifiedToken(
+                claims.getId(),
+                Long.parseLong(claims.getSubject()),
+                claims.get("username", String.class),
+                claims.get("email", String.class),
+                claims.get("role", String.class),
+                claims.get("companyId", Long.class),
+                claims.get("ver", Long.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE
+        );
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Long getCompanyId() {
+        return companyId;
+    }
+
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -3,9 +3,12 @@ package com.expense.expensemanagement.service;
 import com.expense.expensemanagement.dto.*;
 import com.expense.expensemanagement.model.*;
 import com.expense.expensemanagement.repository.*;
+import com.expense.expensemanagement.security.AccessPolicy;
+import com.expense.expensemanagement.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +37,12 @@ public class ApprovalService {
     @Autowired
     private ExpenseService expenseService;
 
+    @Autowired
+    private AccessPolicy accessPolicy;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
     public ApprovalStepDto processApprovalAction(ApprovalActionRequest actionRequest, Long approverId) {
         ApprovalStep approvalStep = approvalStepRepository.findById(actionRequest.getApprovalStepId())
                 .orElseThrow(() -> new RuntimeException("Approval step not found"));
@@ -56,7 +65,7 @@ public class ApprovalService {
                 break;
             case "REJECT":
                 approvalStep.reject(actionRequest.getComments());
-                expense.setStatus(Expense.ExpenseStatus.REJECTED);
+                updateStatus(expense, Expense.ExpenseStatus.REJECTED);
                 expense.setRejectionReason(actionRequest.getComments());
                 break;
             case "SKIP":
@@ -75,18 +84,21 @@ public class ApprovalService {
         return convertApprovalStepToDto(approvalStep);
     }
 
-    public Page<ExpenseDto> getPendingApprovalsForUser(Long userId, Pageable pageable) {
-        List<ApprovalStep> pendingSteps = approvalStepRepository.findPendingApprovalsForUser(userId);
-        List<Expense> expenses = pendingSteps.stream()
-                .map(ApprovalStep::getExpense)
-                .distinct()
-                .collect(Collectors.toList());
-
-        List<ExpenseDto> expenseDtos = expenses.stream()
-                .map(expenseService::convertToDto)
-                .collect(Collectors.toList());
+    public Page<ExpenseSummaryDto> getPendingApprovalsForUser(Long userId, Pageable pageable) {
+        return approvalStepRepository.findPendingSummaries(userId, pageable);
+    }
 
-        return new PageImpl<>(expenseDtos, pageable, expenseDtos.size());
+    public CursorPage<ExpenseSummaryDto> getPendingApprovalsForUser(Long userId, String cursor, int size) {
+        int limit = ExpenseService.pageSize(size);
+        List<ExpenseSummaryDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = approvalStepRepository.findFirstPendingKeysetPage(userId, PageRequest.of(0, limit + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = approvalStepRepository.findPendingKeysetPage(userId, after.getCreatedAt(), after.getId(),
+                    PageRequest.of(0, limit + 1));
+        }
+        return CursorPage.of(rows, limit, ExpenseSummaryDto::toCursor);
     }
 
     public Page<ApprovalStepDto> getApprovalHistoryForUser(Long userId, Pageable pageable) {
@@ -106,19 +118,14 @@ public class ApprovalService {
         return new PageImpl<>(stepDtos, pageable, stepDtos.size());
     }
 
-    public List<ApprovalStepDto> getExpenseWorkflow(Long expenseId, Long userId) {
+    public List<ApprovalStepDto> getExpenseWorkflow(Long expenseId, UserPrincipal currentUser) {
         List<ApprovalStep> steps = approvalStepRepository.findByExpenseIdOrderByStepOrderAsc(expenseId);
         
         // Check if user has permission to view this expense workflow
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!expense.getEmployee().getId().equals(userId) && 
-            !user.isAdmin() && 
-            !isApproverInWorkflow(user, steps)) {
+        if (!accessPolicy.canViewWorkflow(currentUser, expense, steps)) {
             throw new RuntimeException("You don't have permission to view this expense workflow");
         }
 
@@ -127,17 +134,15 @@ public class ApprovalService {
                 .collect(Collectors.toList());
     }
 
-    public ExpenseDto escalateExpense(Long expenseId, String reason, Long userId) {
+    public ExpenseDto escalateExpense(Long expenseId, String reason, UserPrincipal currentUser) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
 
         // Check if user has permission to escalate
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!user.isManager() && !user.isAdmin()) {
+        if (!accessPolicy.canEscalate(currentUser)) {
             throw new RuntimeException("Only managers and admins can escalate expenses");
         }
+        User user = userRepository.getReferenceById(currentUser.getId());
 
         // Add escalation comment
         ExpenseComment comment = new ExpenseComment(
@@ -160,7 +165,7 @@ public class ApprovalService {
 
         if (applicableRules.isEmpty()) {
             // No rules found, auto-approve
-            expense.setStatus(Expense.ExpenseStatus.APPROVED);
+            updateStatus(expense, Expense.ExpenseStatus.APPROVED);
             expenseRepository.save(expense);
             return;
         }
@@ -175,7 +180,7 @@ public class ApprovalService {
         approvalStepRepository.saveAll(approvalSteps);
 
         // Set expense status to pending
-        expense.setStatus(Expense.ExpenseStatus.PENDING);
+        updateStatus(expense, Expense.ExpenseStatus.PENDING);
         expenseRepository.save(expense);
     }
 
@@ -228,7 +233,7 @@ public class ApprovalService {
                 .anyMatch(step -> step.getStatus() == ApprovalStep.ApprovalStatus.REJECTED);
         
         if (hasRejected) {
-            expense.setStatus(Expense.ExpenseStatus.REJECTED);
+            updateStatus(expense, Expense.ExpenseStatus.REJECTED);
             expenseRepository.save(expense);
             return;
         }
@@ -238,14 +243,15 @@ public class ApprovalService {
                                 step.getStatus() == ApprovalStep.ApprovalStatus.SKIPPED);
 
         if (allApproved) {
-            expense.setStatus(Expense.ExpenseStatus.APPROVED);
+            updateStatus(expense, Expense.ExpenseStatus.APPROVED);
             expenseRepository.save(expense);
         }
     }
 
-    private boolean isApproverInWorkflow(User user, List<ApprovalStep> steps) {
-        return steps.stream()
-                .anyMatch(step -> step.getApprover().getId().equals(user.getId()));
+    private void updateStatus(Expense expense, Expense.ExpenseStatus status) {
+        Expense.ExpenseStatus previousStatus = expense.getStatus();
+        expense.setStatus(status);
+        expenseRollupService.statusChanged(expense, previousStatus);
     }
 
     private ApprovalStepDto convertApprovalStepToDto(ApprovalStep step) {
@@ -4,8 +4,13 @@ import com.expense.expensemanagement.dto.*;
 import com.expense.expensemanagement.model.*;
 import com.expense.expensemanagement.repository.*;
 import com.expense.expensemanagement.security.JwtTokenProvider;
+import com.expense.expensemanagement.security.RefreshTokenGrant;
+import com.expense.expensemanagement.security.TokenRevocationService;
+import com.expense.expensemanagement.security.UserCreatedEvent;
 import com.expense.expensemanagement.security.UserPrincipal;
+import com.expense.expensemanagement.security.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -14,6 +19,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Optional;
+
 
 @Service
 @Transactional
@@ -37,6 +44,18 @@ public class AuthService {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserHierarchyService userHierarchyService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     public JwtAuthenticationResponse authenticateUser(LoginRequest loginRequest) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
@@ -54,8 +73,9 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         JwtAuthenticationResponse.UserSummary userSummary = createUserSummary(user);
+        String refreshToken = refreshTokenService.issueToken(user);
 
-        return new JwtAuthenticationResponse(jwt, userSummary);
+        return new JwtAuthenticationResponse(jwt, refreshToken, userSummary);
     }
 
     public JwtAuthenticationResponse registerUser(SignupRequest signUpRequest) {
@@ -68,6 +88,9 @@ public class AuthService {
             throw new RuntimeException("Email is already in use!");
         }
 
+        // Hash before any writes so a saturated hashing pool rejects the request without side effects
+        String encodedPassword = passwordEncoder.encode(signUpRequest.getPassword());
+
         // Create company
         Company company = new Company(
                 signUpRequest.getCompanyName(),
@@ -87,7 +110,7 @@ public class AuthService {
         User user = new User(
                 signUpRequest.getUsername(),
                 signUpRequest.getEmail(),
-                passwordEncoder.encode(signUpRequest.getPassword()),
+                encodedPassword,
                 signUpRequest.getFirstName(),
                 signUpRequest.getLastName(),
                 company,
@@ -95,6 +118,8 @@ public class AuthService {
         );
         user.setPhone(signUpRequest.getPhone());
         user = userRepository.save(user);
+        userHierarchyService.addUser(user.getId(), null);
+        eventPublisher.publishEvent(new UserCreatedEvent(user.getUsername(), user.getEmail()));
 
         // Generate JWT token
         String jwt = tokenProvider.generateTokenFromUserId(
@@ -102,17 +127,56 @@ public class AuthService {
                 user.getUsername(),
                 user.getEmail(),
                 user.getRole().getRoleType().name(),
-                user.getCompany().getId()
+                user.getCompany().getId(),
+                user.getTokenVersion()
         );
 
         JwtAuthenticationResponse.UserSummary userSummary = createUserSummary(user);
+        String refreshToken = refreshTokenService.issueToken(user);
+
+        return new JwtAuthenticationResponse(jwt, refreshToken, userSummary);
+    }
+
+    public JwtAuthenticationResponse refreshAccessToken(String refreshToken) {
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(refreshToken);
+        RefreshTokenGrant grant = rotated.getGrant();
+
+        String newJwt = tokenProvider.generateTokenFromUserId(
+                grant.getUserId(),
+                grant.getUsername(),
+                grant.getEmail(),
+                grant.getRole(),
+                grant.getCompanyId(),
+                grant.getTokenVersion()
+        );
 
-        return new JwtAuthenticationResponse(jwt, userSummary);
+        JwtAuthenticationResponse.UserSummary userSummary = new JwtAuthenticationResponse.UserSummary(
+                grant.getUserId(),
+                grant.getUsername(),
+                grant.getEmail(),
+                grant.getFirstName(),
+                grant.getLastName(),
+                grant.getRole(),
+                grant.getCompanyId(),
+                grant.getCompanyName()
+        );
+        return new JwtAuthenticationResponse(newJwt, rotated.getRefreshToken(), userSummary);
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            tokenProvider.verifyToken(accessToken).ifPresent(tokenRevocationService::revoke);
+        }
+        if (refreshToken != null) {
+            refreshTokenService.revokeFamily(refreshToken);
+        }
     }
 
     public JwtAuthenticationResponse refreshToken(String token) {
-        if (tokenProvider.validateToken(token)) {
-            Long userId = tokenProvider.getUserIdFromToken(token);
+        Optional<VerifiedToken> verifiedToken = tokenProvider.verifyToken(token);
+        // /api/auth/** skips the JWT filter, so the revocation check has to happen here
+        if (verifiedToken.isPresent() && !tokenRevocationService.isRevoked(verifiedToken.get().getTokenId())) {
+            Long userId = verifiedToken.get().getUserId();
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
@@ -121,7 +185,8 @@ public class AuthService {
                     user.getUsername(),
                     user.getEmail(),
                     user.getRole().getRoleType().name(),
-                    user.getCompany().getId()
+                    user.getCompany().getId(),
+                    user.getTokenVersion()
             );
 
             JwtAuthenticationResponse.UserSummary userSummary = createUserSummary(user);
@@ -1,100 +1,419 @@
 package com.expense.expensemanagement.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Converts amounts using a single rate table for an anchor currency (USD by default), kept in
+ * memory. Any pair is triangulated through the anchor, so one provider payload serves every
+ * currency. The table is loaded at startup and refreshed on a schedule; a table found older than
+ * the refresh interval is still served while a background refresh replaces it, so conversions
+ * only wait on the provider when there is no table at all.
+ * <p>
+ * Concurrent lookups share one in-flight fetch, and provider calls go through a circuit breaker
+ * so a failing provider is not hit by every conversion. When no table younger than the maximum
+ * age can be had, conversions fail with ExchangeRateUnavailableException rather than guess a rate.
+ * Tables installed from a snapshot file are held to the separate snapshot maximum age instead,
+ * counted from the snapshot's creation: nodes without provider access run on snapshots that are
+ * routinely older than a day. Such nodes set currency.provider to none, which leaves no provider
+ * bean: the service then never fetches, and serves snapshot tables alone.
+ * <p>
+ * Each fetched table is also recorded as the day's rates in ExchangeRateHistoryService. Dated
+ * conversions use the rate recorded for that day and fall back to the current table only for
+ * days the history does not cover.
+ */
 @Service
 public class CurrencyConversionService {
 
-    @Value("${currency.api.key:}")
-    private String apiKey;
+    private static final Logger logger = LoggerFactory.getLogger(CurrencyConversionService.class);
 
-    @Value("${currency.api.base-url:https://api.exchangerate-api.com/v4/latest}")
-    private String baseUrl;
+    // Scale of expenses.exchange_rate; amounts are converted with the unrounded rate
+    private static final int RATE_SCALE = 6;
 
-    private final HttpClient httpClient;
-    private final ObjectMapper objectMapper;
+    // Precision of the anchor reciprocals and of cross rates
+    private static final MathContext CROSS_RATE_PRECISION = MathContext.DECIMAL64;
 
-    public CurrencyConversionService() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
-        this.objectMapper = new ObjectMapper();
+    // Null with currency.provider=none
+    @Autowired(required = false)
+    private ExchangeRateProvider exchangeRateProvider;
+
+    @Autowired
+    private ExchangeRateHistoryService exchangeRateHistoryService;
+
+    private final String anchorCurrency;
+    private final Duration refreshInterval;
+    private final Duration maxAge;
+    private final Duration snapshotMaxAge;
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final Timer fetchSuccess;
+    private final Timer fetchFailure;
+    private final Counter fetchRejected;
+    private final Counter ratesUnavailable;
+
+    private volatile RateTable table;
+    private final AtomicReference<CompletableFuture<RateTable>> inFlight = new AtomicReference<>();
+    private final ExecutorService fetcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "exchange-rate-fetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CurrencyConversionService(@Value("${currency.rates.anchor:USD}") String anchorCurrency,
+                                     @Value("${currency.rates.refresh-interval:PT1H}") Duration refreshInterval,
+                                     @Value("${currency.rates.max-age:PT24H}") Duration maxAge,
+                                     @Value("${currency.snapshot.max-age:P30D}") Duration snapshotMaxAge,
+                                     @Value("${currency.rates.max-wait:PT3S}") Duration maxWait,
+                                     @Value("${currency.rates.breaker.failure-threshold:5}") int failureThreshold,
+                                     @Value("${currency.rates.breaker.open-duration:PT30S}") Duration openDuration,
+                                     MeterRegistry meterRegistry) {
+        this.anchorCurrency = anchorCurrency.trim().toUpperCase(Locale.ROOT);
+        this.refreshInterval = refreshInterval;
+        this.maxAge = maxAge;
+        this.snapshotMaxAge = snapshotMaxAge;
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+
+        this.fetchSuccess = Timer.builder("currency.provider.latency").tag("outcome", "success").register(meterRegistry);
+        this.fetchFailure = Timer.builder("currency.provider.latency").tag("outcome", "failure").register(meterRegistry);
+        this.fetchRejected = Counter.builder("currency.provider.rejected")
+                .description("Provider calls refused while the circuit was open")
+                .register(meterRegistry);
+        this.ratesUnavailable = Counter.builder("currency.rates.unavailable")
+                .description("Conversions that failed for lack of a usable rate")
+                .register(meterRegistry);
+        // 0 closed, 1 half-open, 2 open
+        Gauge.builder("currency.provider.circuit", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .register(meterRegistry);
+        Gauge.builder("currency.rates.age", this, CurrencyConversionService::ageSeconds)
+                .tag("base", this.anchorCurrency)
+                .baseUnit("seconds")
+                .register(meterRegistry);
     }
 
     public BigDecimal convertCurrency(BigDecimal amount, String fromCurrency, String toCurrency) {
         if (fromCurrency.equals(toCurrency)) {
             return amount;
         }
+        return applyRate(amount, getExchangeRate(fromCurrency, toCurrency));
+    }
 
-        try {
-            BigDecimal exchangeRate = getExchangeRate(fromCurrency, toCurrency);
-            return amount.multiply(exchangeRate).setScale(2, RoundingMode.HALF_UP);
-        } catch (Exception e) {
-            // Fallback to 1:1 conversion if API fails
+    public BigDecimal convertCurrency(BigDecimal amount, String fromCurrency, String toCurrency, LocalDate date) {
+        if (fromCurrency.equals(toCurrency)) {
             return amount;
         }
+        return applyRate(amount, getExchangeRate(fromCurrency, toCurrency, date));
+    }
+
+    public BigDecimal applyRate(BigDecimal amount, BigDecimal exchangeRate) {
+        return amount.multiply(exchangeRate).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * The rate as recorded on an expense. Only the record is rounded: at six decimals a rate
+     * such as JPY to KWD keeps three significant digits, too few to convert with.
+     */
+    public BigDecimal recordedRate(BigDecimal exchangeRate) {
+        return exchangeRate.setScale(RATE_SCALE, RoundingMode.HALF_UP);
     }
 
     public BigDecimal getExchangeRate(String fromCurrency, String toCurrency) {
-        if (fromCurrency.equals(toCurrency)) {
+        String from = fromCurrency.toUpperCase(Locale.ROOT);
+        String to = toCurrency.toUpperCase(Locale.ROOT);
+        if (from.equals(to)) {
             return BigDecimal.ONE;
         }
 
-        try {
-            String url = baseUrl + "/" + fromCurrency.toUpperCase();
-            if (!apiKey.isEmpty()) {
-                url += "?access_key=" + apiKey;
+        RateTable current = cachedTable();
+        if (current == null) {
+            current = awaitTable();
+        }
+        BigDecimal rate = current != null
+                ? current.rate(CurrencyOrdinals.indexOf(from), CurrencyOrdinals.indexOf(to))
+                : null;
+        if (rate == null) {
+            ratesUnavailable.increment();
+            throw new ExchangeRateUnavailableException(from, to);
+        }
+        return rate;
+    }
+
+    /**
+     * The rate recorded for the given day, or the current rate if the history does not cover it.
+     */
+    public BigDecimal getExchangeRate(String fromCurrency, String toCurrency, LocalDate date) {
+        String from = fromCurrency.toUpperCase(Locale.ROOT);
+        String to = toCurrency.toUpperCase(Locale.ROOT);
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        BigDecimal rate = exchangeRateHistoryService.getRate(from, to, date);
+        return rate != null ? rate : getExchangeRate(from, to);
+    }
+
+    /**
+     * Time since the anchor rate table was fetched, or null if there is none.
+     */
+    public Duration getRateAge() {
+        RateTable current = table;
+        return current != null ? Duration.between(current.fetchedAt, Instant.now()) : null;
+    }
+
+    /**
+     * The current anchor table as a snapshot, or null if no table has been loaded.
+     */
+    public RateSnapshot currentSnapshot() {
+        RateTable current = table;
+        if (current == null) {
+            return null;
+        }
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        for (int i = 0; i < current.perAnchor.length; i++) {
+            if (current.perAnchor[i] != null) {
+                rates.put(CurrencyOrdinals.codeOf(i), current.perAnchor[i]);
             }
+        }
+        return new RateSnapshot(anchorCurrency, current.fetchedAt, rates);
+    }
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(10))
-                    .GET()
-                    .build();
+    /**
+     * Serves the snapshot's rates as the current table if they are for this anchor, newer than the
+     * table held and within the snapshot maximum age, and records them as that day's rates.
+     * Returns whether they were taken.
+     */
+    public boolean install(RateSnapshot snapshot) {
+        if (!anchorCurrency.equals(snapshot.getAnchorCurrency())) {
+            logger.warn("Ignoring {} rate snapshot, rates are anchored to {}", snapshot.getAnchorCurrency(), anchorCurrency);
+            return false;
+        }
+        Instant usableUntil = snapshot.getCreatedAt().plus(snapshotMaxAge);
+        if (usableUntil.isBefore(Instant.now())) {
+            logger.warn("Ignoring {} rate snapshot created at {}, older than the snapshot maximum age of {}",
+                    anchorCurrency, snapshot.getCreatedAt(), snapshotMaxAge);
+            return false;
+        }
+        synchronized (this) {
+            RateTable current = table;
+            if (current != null && !snapshot.getCreatedAt().isAfter(current.fetchedAt)) {
+                return false;
+            }
+            table = RateTable.of(anchorCurrency, snapshot.getRates(), snapshot.getCreatedAt(), usableUntil);
+        }
+        recordHistory(LocalDate.ofInstant(snapshot.getCreatedAt(), ZoneId.systemDefault()), snapshot.getRates());
+        return true;
+    }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (exchangeRateProvider == null) {
+            logger.info("No exchange rate provider configured, {} rates come from snapshots only", anchorCurrency);
+        }
+        fetch();
+    }
 
-            if (response.statusCode() == 200) {
-                JsonNode jsonNode = objectMapper.readTree(response.body());
-                JsonNode rates = jsonNode.get("rates");
-                
-                if (rates != null && rates.has(toCurrency.toUpperCase())) {
-                    return rates.get(toCurrency.toUpperCase()).decimalValue();
-                }
+    @Scheduled(fixedDelayString = "${currency.rates.refresh-interval:PT1H}", initialDelayString = "${currency.rates.refresh-interval:PT1H}")
+    public void refreshAll() {
+        fetch();
+    }
+
+    /**
+     * The anchor table, or null if there is none within its maximum age. A table past the refresh
+     * interval is returned as is while a background refresh runs.
+     */
+    private RateTable cachedTable() {
+        RateTable current = table;
+        if (current == null) {
+            return null;
+        }
+        Instant now = Instant.now();
+        if (current.fetchedAt.plus(refreshInterval).isBefore(now)) {
+            fetch();
+        }
+        return current.usableUntil.isBefore(now) ? null : current;
+    }
+
+    /**
+     * Waits a bounded time for the anchor table. A fetch that outlasts the wait keeps running and
+     * still fills the cache for later lookups.
+     */
+    private RateTable awaitTable() {
+        try {
+            return fetch().get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Exchange rates for {} not fetched within {}", anchorCurrency, maxWait);
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Starts a fetch of the anchor table, or joins the one already running. The future completes
+     * with the new table, or with null if the fetch failed or was refused, or there is no provider.
+     */
+    private CompletableFuture<RateTable> fetch() {
+        if (exchangeRateProvider == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<RateTable> future = new CompletableFuture<>();
+        while (!inFlight.compareAndSet(null, future)) {
+            CompletableFuture<RateTable> pending = inFlight.get();
+            if (pending != null) {
+                return pending;
             }
-        } catch (IOException | InterruptedException e) {
-            // Log error and fallback to 1:1 conversion
         }
+        fetcher.execute(() -> {
+            RateTable fetched = null;
+            try {
+                fetched = load();
+            } finally {
+                // Cleared before completing, so a caller that sees it done starts a fresh fetch next time
+                inFlight.compareAndSet(future, null);
+                future.complete(fetched);
+            }
+        });
+        return future;
+    }
 
-        // Fallback to 1:1 conversion
-        return BigDecimal.ONE;
+    private RateTable load() {
+        if (!circuitBreaker.tryAcquire()) {
+            fetchRejected.increment();
+            logger.debug("Rate provider circuit open, not fetching rates for {}", anchorCurrency);
+            return null;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Map<String, BigDecimal> rates = exchangeRateProvider.fetchRates(anchorCurrency);
+            if (rates.isEmpty()) {
+                throw new IOException("Rate provider returned no rates for " + anchorCurrency);
+            }
+            circuitBreaker.onSuccess();
+            sample.stop(fetchSuccess);
+            Instant now = Instant.now();
+            RateTable fetched = RateTable.of(anchorCurrency, rates, now, now.plus(maxAge));
+            synchronized (this) {
+                table = fetched;
+            }
+            recordHistory(LocalDate.now(), rates);
+            return fetched;
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            sample.stop(fetchFailure);
+            // The previous table, if any, keeps being served until it is past the maximum age
+            logger.warn("Could not refresh exchange rates for {}: {}", anchorCurrency, e.toString());
+            return null;
+        }
+    }
+
+    private void recordHistory(LocalDate date, Map<String, BigDecimal> rates) {
+        try {
+            exchangeRateHistoryService.record(date, rates);
+        } catch (Exception e) {
+            // The fetched table is still good for current conversions
+            logger.warn("Could not record exchange rates for {}: {}", anchorCurrency, e.toString());
+        }
+    }
+
+    private double ageSeconds() {
+        Duration age = getRateAge();
+        return age != null ? age.toMillis() / 1000.0 : Double.NaN;
+    }
+
+    static BigDecimal reciprocal(BigDecimal rate) {
+        return BigDecimal.ONE.divide(rate, CROSS_RATE_PRECISION);
+    }
+
+    /**
+     * The rate from a to b, given the anchor's value in a and b's value in the anchor.
+     */
+    static BigDecimal crossRate(BigDecimal anchorPerFrom, BigDecimal perAnchorTo) {
+        return anchorPerFrom.multiply(perAnchorTo, CROSS_RATE_PRECISION);
     }
 
     public boolean isCurrencySupported(String currency) {
-        // Common currency codes
-        String[] supportedCurrencies = {
-            "USD", "EUR", "GBP", "JPY", "CAD", "AUD", "CHF", "CNY", "INR", 
-            "SGD", "HKD", "NZD", "SEK", "NOK", "DKK", "PLN", "CZK", "HUF",
-            "ZAR", "BRL", "MXN", "KRW", "THB", "MYR", "PHP", "IDR", "VND"
-        };
-
-        for (String supported : supportedCurrencies) {
-            if (supported.equalsIgnoreCase(currency)) {
-                return true;
+        return currency != null && CurrencyOrdinals.isSupported(currency.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Anchor rates in arrays indexed by currency ordinal: perAnchor[i] is the amount of currency i
+     * worth one unit of the anchor, and anchorPer[i] its reciprocal. The rate from a to b is then
+     * anchorPer[a] * perAnchor[b]. Slots for currencies the provider did not quote are null.
+     * After usableUntil the table is no longer served.
+     */
+    private static final class RateTable {
+        private final BigDecimal[] perAnchor;
+        private final BigDecimal[] anchorPer;
+        private final Instant fetchedAt;
+        private final Instant usableUntil;
+
+        private RateTable(BigDecimal[] perAnchor, BigDecimal[] anchorPer, Instant fetchedAt, Instant usableUntil) {
+            this.perAnchor = perAnchor;
+            this.anchorPer = anchorPer;
+            this.fetchedAt = fetchedAt;
+            this.usableUntil = usableUntil;
+        }
+
+        static RateTable of(String anchor, Map<String, BigDecimal> rates, Instant fetchedAt, Instant usableUntil) {
+            int anchorOrdinal = CurrencyOrdinals.register(anchor);
+            rates.keySet().forEach(currency -> CurrencyOrdinals.register(currency.toUpperCase(Locale.ROOT)));
+            BigDecimal[] perAnchor = new BigDecimal[CurrencyOrdinals.count()];
+            BigDecimal[] anchorPer = new BigDecimal[perAnchor.length];
+            rates.forEach((currency, rate) -> {
+                if (rate != null && rate.signum() > 0) {
+                    int ordinal = CurrencyOrdinals.indexOf(currency.toUpperCase(Locale.ROOT));
+                    perAnchor[ordinal] = rate;
+                    anchorPer[ordinal] = reciprocal(rate);
+                }
+            });
+            // The anchor is worth exactly one of itself, whatever the payload says
+            perAnchor[anchorOrdinal] = BigDecimal.ONE;
+            anchorPer[anchorOrdinal] = BigDecimal.ONE;
+            return new RateTable(perAnchor, anchorPer, fetchedAt, usableUntil);
+        }
+
+        /**
+         * The rate between two ordinals, or null if either is not quoted.
+         */
+        BigDecimal rate(int from, int to) {
+            if (from < 0 || to < 0 || from >= perAnchor.length || to >= perAnchor.length
+                    || anchorPer[from] == null || perAnchor[to] == null) {
+                return null;
             }
+            return crossRate(anchorPer[from], perAnchor[to]);
         }
-        return false;
     }
 }
@@ -0,0 +1,63 @@
+package com.expense.expensemanagement.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Dense ordinals for currency codes, used to index rate arrays. The supported currencies take
+ * the first ordinals in a fixed order; any other code a rate provider returns is appended on
+ * first sight. Ordinals never change for the life of the process.
+ */
+final class CurrencyOrdinals {
+
+    static final String[] SUPPORTED = {
+        "USD", "EUR", "GBP", "JPY", "CAD", "AUD", "CHF", "CNY", "INR",
+        "SGD", "HKD", "NZD", "SEK", "NOK", "DKK", "PLN", "CZK", "HUF",
+        "ZAR", "BRL", "MXN", "KRW", "THB", "MYR", "PHP", "IDR", "VND"
+    };
+
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static final List<String> CODES = new CopyOnWriteArrayList<>();
+
+    static {
+        for (String code : SUPPORTED) {
+            register(code);
+        }
+    }
+
+    private CurrencyOrdinals() {
+    }
+
+    /**
+     * The ordinal of an upper-case currency code, or -1 if it has never been registered.
+     */
+    static int indexOf(String code) {
+        Integer ordinal = ORDINALS.get(code);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    static synchronized int register(String code) {
+        Integer ordinal = ORDINALS.get(code);
+        if (ordinal == null) {
+            ordinal = CODES.size();
+            CODES.add(code);
+            ORDINALS.put(code, ordinal);
+        }
+        return ordinal;
+    }
+
+    static int count() {
+        return CODES.size();
+    }
+
+    static String codeOf(int ordinal) {
+        return CODES.get(ordinal);
+    }
+
+    static boolean isSupported(String code) {
+        int ordinal = indexOf(code);
+        return ordinal >= 0 && ordinal < SUPPORTED.length;
+    }
+}
@@ -12,9 +12,21 @@ public class DataInitializationService implements CommandLineRunner {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private UserHierarchyService userHierarchyService;
+
+    @Autowired
+    private IdSequenceService idSequenceService;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
     @Override
     public void run(String... args) throws Exception {
+        idSequenceService.alignWithExistingIds();
         initializeRoles();
+        userHierarchyService.rebuildIfEmpty();
+        expenseRollupService.rebuildIfEmpty();
     }
 
     private void initializeRoles() {
@@ -0,0 +1,272 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.model.ExchangeRate;
+import com.expense.expensemanagement.repository.ExchangeRateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Daily anchor rates, stored in the exchange_rates table and held in memory as one array per
+ * currency indexed by day, so the rate for any pair on any recorded day is found without a
+ * query or a provider call. Every successful provider fetch records the current day; days with
+ * no record (weekends, outages) carry the previous day's rates forward.
+ */
+@Service
+public class ExchangeRateHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeRateHistoryService.class);
+
+    // Stored rates keep more precision than the 6-decimal rates recorded on expenses
+    private static final int STORED_SCALE = 10;
+
+    @Autowired
+    private ExchangeRateRepository exchangeRateRepository;
+
+    // Null with currency.provider=none
+    @Autowired(required = false)
+    private ExchangeRateProvider exchangeRateProvider;
+
+    private final String anchorCurrency;
+    private final int historyDays;
+    private final int backfillDays;
+    private final TransactionTemplate recordTransaction;
+    private final Clock clock;
+
+    // Recorded days, each an array of anchor rates by currency ordinal; guarded by itself
+    private final NavigableMap<LocalDate, BigDecimal[]> recordedDays = new TreeMap<>();
+    private volatile History history = History.EMPTY;
+
+    @Autowired
+    public ExchangeRateHistoryService(@Value("${currency.rates.anchor:USD}") String anchorCurrency,
+                                      @Value("${currency.history.days:365}") int historyDays,
+                                      @Value("${currency.history.backfill-days:30}") int backfillDays,
+                                      PlatformTransactionManager transactionManager) {
+        this(anchorCurrency, historyDays, backfillDays, transactionManager, Clock.systemDefaultZone());
+    }
+
+    ExchangeRateHistoryService(String anchorCurrency, int historyDays, int backfillDays,
+                               PlatformTransactionManager transactionManager, Clock clock) {
+        this.anchorCurrency = anchorCurrency.trim().toUpperCase(Locale.ROOT);
+        this.historyDays = historyDays;
+        this.backfillDays = Math.min(backfillDays, historyDays);
+        this.recordTransaction = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+    }
+
+    /**
+     * The rate between two upper-case currency codes on the given day, or null if no day on or
+     * before it is recorded, or it is later than the last recorded day.
+     */
+    public BigDecimal getRate(String fromCurrency, String toCurrency, LocalDate date) {
+        return history.rate(CurrencyOrdinals.indexOf(fromCurrency), CurrencyOrdinals.indexOf(toCurrency), date);
+    }
+
+    /**
+     * Stores the anchor rates for a day, replacing any recorded earlier for it.
+     */
+    public void record(LocalDate date, Map<String, BigDecimal> rates) {
+        BigDecimal[] day = store(date, rates);
+        synchronized (recordedDays) {
+            recordedDays.put(date, day);
+            rebuild();
+        }
+    }
+
+    /**
+     * Loads the recorded window at startup, then backfills missing recent days when the provider
+     * serves historical rates.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate firstDay = today.minusDays(historyDays - 1L);
+        Map<LocalDate, List<ExchangeRate>> byDay = new TreeMap<>();
+        for (ExchangeRate rate : exchangeRateRepository.findHistory(anchorCurrency, firstDay)) {
+            byDay.computeIfAbsent(rate.getRateDate(), date -> new ArrayList<>()).add(rate);
+        }
+        synchronized (recordedDays) {
+            // A fetch recorded while this was loading is newer than what was read
+            byDay.forEach((date, rates) -> recordedDays.putIfAbsent(date, toDay(rates)));
+            rebuild();
+        }
+        logger.info("Loaded {} days of {} exchange rates", byDay.size(), anchorCurrency);
+
+        if (backfillDays > 0 && exchangeRateProvider != null && exchangeRateProvider.supportsHistory()) {
+            backfill(today.minusDays(backfillDays), today.minusDays(1));
+        }
+    }
+
+    /**
+     * Fetches and records every day in the range not recorded yet; stops at the first failure.
+     */
+    public void backfill(LocalDate from, LocalDate to) {
+        Set<LocalDate> recorded = new HashSet<>(exchangeRateRepository.findRecordedDates(anchorCurrency, from));
+        int filled = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (recorded.contains(date)) {
+                continue;
+            }
+            try {
+                BigDecimal[] day = store(date, exchangeRateProvider.fetchRates(anchorCurrency, date));
+                synchronized (recordedDays) {
+                    recordedDays.put(date, day);
+                }
+                filled++;
+            } catch (IOException e) {
+                logger.warn("Could not backfill exchange rates for {}: {}", date, e.toString());
+                break;
+            }
+        }
+        if (filled > 0) {
+            synchronized (recordedDays) {
+                rebuild();
+            }
+            logger.info("Backfilled {} days of {} exchange rates", filled, anchorCurrency);
+        }
+    }
+
+    // An unchanged day is not rewritten; refreshes within a day usually fetch the same rates
+    private BigDecimal[] store(LocalDate date, Map<String, BigDecimal> rates) {
+        List<ExchangeRate> rows = new ArrayList<>();
+        rows.add(new ExchangeRate(anchorCurrency, date, anchorCurrency, BigDecimal.ONE.setScale(STORED_SCALE)));
+        rates.forEach((currency, rate) -> {
+            String code = currency.toUpperCase(Locale.ROOT);
+            if (code.length() == 3 && !code.equals(anchorCurrency) && rate != null && rate.signum() > 0) {
+                rows.add(new ExchangeRate(anchorCurrency, date, code, rate.setScale(STORED_SCALE, RoundingMode.HALF_UP)));
+            }
+        });
+        BigDecimal[] day = toDay(rows);
+        BigDecimal[] recorded;
+        synchronized (recordedDays) {
+            recorded = recordedDays.get(date);
+        }
+        if (recorded != null && sameRates(recorded, day)) {
+            return recorded;
+        }
+        recordTransaction.executeWithoutResult(status -> {
+            exchangeRateRepository.deleteDay(anchorCurrency, date);
+            exchangeRateRepository.saveAll(rows);
+        });
+        return day;
+    }
+
+    // Days may be sized for different currency counts; a missing tail means no rate
+    private static boolean sameRates(BigDecimal[] a, BigDecimal[] b) {
+        for (int i = 0; i < Math.max(a.length, b.length); i++) {
+            BigDecimal x = i < a.length ? a[i] : null;
+            BigDecimal y = i < b.length ? b[i] : null;
+            if (x == null ? y != null : y == null || x.compareTo(y) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BigDecimal[] toDay(List<ExchangeRate> rates) {
+        rates.forEach(rate -> CurrencyOrdinals.register(rate.getCurrency()));
+        BigDecimal[] day = new BigDecimal[CurrencyOrdinals.count()];
+        for (ExchangeRate rate : rates) {
+            if (rate.getRate().signum() > 0) {
+                day[CurrencyOrdinals.indexOf(rate.getCurrency())] = rate.getRate();
+            }
+        }
+        return day;
+    }
+
+    /**
+     * Replaces the dense history with one built from recordedDays, dropping days past the window.
+     * Callers hold the recordedDays lock.
+     */
+    private void rebuild() {
+        recordedDays.headMap(LocalDate.now(clock).minusDays(historyDays - 1L)).clear();
+        if (recordedDays.isEmpty()) {
+            history = History.EMPTY;
+            return;
+        }
+
+        LocalDate firstDay = recordedDays.firstKey();
+        int days = (int) (recordedDays.lastKey().toEpochDay() - firstDay.toEpochDay()) + 1;
+        int currencies = CurrencyOrdinals.count();
+        BigDecimal[][] perAnchor = new BigDecimal[currencies][];
+        BigDecimal[][] anchorPer = new BigDecimal[currencies][];
+        BigDecimal[] carried = new BigDecimal[currencies];
+        BigDecimal[] carriedReciprocal = new BigDecimal[currencies];
+        for (int d = 0; d < days; d++) {
+            BigDecimal[] recorded = recordedDays.get(firstDay.plusDays(d));
+            if (recorded != null) {
+                for (int i = 0; i < recorded.length; i++) {
+                    if (recorded[i] != null) {
+                        carried[i] = recorded[i];
+                        carriedReciprocal[i] = CurrencyConversionService.reciprocal(recorded[i]);
+                    }
+                }
+            }
+            for (int i = 0; i < currencies; i++) {
+                if (carried[i] == null) {
+                    continue;
+                }
+                if (perAnchor[i] == null) {
+                    perAnchor[i] = new BigDecimal[days];
+                    anchorPer[i] = new BigDecimal[days];
+                }
+                perAnchor[i][d] = carried[i];
+                anchorPer[i][d] = carriedReciprocal[i];
+            }
+        }
+        history = new History(firstDay.toEpochDay(), days, perAnchor, anchorPer);
+    }
+
+    /**
+     * perAnchor[c][d] is the amount of currency c worth one anchor unit on day firstDay + d, and
+     * anchorPer[c][d] its reciprocal. Rows are null for currencies never quoted in the window.
+     */
+    private static final class History {
+        static final History EMPTY = new History(0, 0, new BigDecimal[0][], new BigDecimal[0][]);
+
+        private final long firstEpochDay;
+        private final int days;
+        private final BigDecimal[][] perAnchor;
+        private final BigDecimal[][] anchorPer;
+
+        History(long firstEpochDay, int days, BigDecimal[][] perAnchor, BigDecimal[][] anchorPer) {
+            this.firstEpochDay = firstEpochDay;
+            this.days = days;
+            this.perAnchor = perAnchor;
+            this.anchorPer = anchorPer;
+        }
+
+        BigDecimal rate(int from, int to, LocalDate date) {
+            long day = date.toEpochDay() - firstEpochDay;
+            if (day < 0 || day >= days || from < 0 || to < 0 || from >= perAnchor.length || to >= perAnchor.length) {
+                return null;
+            }
+            BigDecimal[] fromRow = anchorPer[from];
+            BigDecimal[] toRow = perAnchor[to];
+            if (fromRow == null || toRow == null || fromRow[(int) day] == null || toRow[(int) day] == null) {
+                return null;
+            }
+            return CurrencyConversionService.crossRate(fromRow[(int) day], toRow[(int) day]);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.expense.expensemanagement.service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Source of current exchange rates for CurrencyConversionService. The HTTP provider is used by
+ * default; setting currency.provider to fixed serves rates from configuration instead, for tests
+ * and offline development, and none leaves rate snapshots as the only source.
+ */
+public interface ExchangeRateProvider {
+
+    /**
+     * Returns how much one unit of the base currency buys in every currency the provider knows,
+     * keyed by upper-case ISO code.
+     */
+    Map<String, BigDecimal> fetchRates(String baseCurrency) throws IOException;
+
+    /**
+     * Whether fetchRates can be asked for a past day, which lets missing history be backfilled.
+     */
+    default boolean supportsHistory() {
+        return false;
+    }
+
+    /**
+     * Returns the rates that applied on the given day, in the same form as fetchRates.
+     */
+    default Map<String, BigDecimal> fetchRates(String baseCurrency, LocalDate date) throws IOException {
+        throw new IOException("Historical rates are not available from this provider");
+    }
+}
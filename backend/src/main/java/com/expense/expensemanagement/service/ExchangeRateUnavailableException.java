@@ -0,0 +1,14 @@
+package com.expense.expensemanagement.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ExchangeRateUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExchangeRateUnavailableException(String fromCurrency, String toCurrency) {
+        super("Exchange rate from " + fromCurrency + " to " + toCurrency + " is currently unavailable");
+    }
+}
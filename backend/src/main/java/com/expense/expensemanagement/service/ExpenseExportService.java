@@ -0,0 +1,225 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.repository.ExpenseRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams every expense of a company as CSV or NDJSON. Rows are read through a forward-only
+ * cursor and written straight to the response; the persistence context is cleared and the output
+ * flushed every chunk, so memory use does not grow with the size of the company.
+ */
+@Service
+public class ExpenseExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseExportService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+
+    // Stand-ins for a missing date bound, inside the DATE range of MySQL and PostgreSQL alike
+    static final LocalDate EARLIEST_DATE = LocalDate.of(1000, 1, 1);
+    static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final String[] COLUMNS = {
+            "id", "expenseDate", "description", "category", "status", "amount", "currency",
+            "convertedAmount", "convertedCurrency", "exchangeRate", "employeeId", "employeeName",
+            "employeeEmail", "notes", "createdAt"
+    };
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + name);
+            }
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final TransactionTemplate exportTransaction;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ExpenseExportService(PlatformTransactionManager transactionManager) {
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Either date may be left out for a range open on that side.
+     */
+    public void exportCompanyExpenses(Long companyId, Format format, LocalDate startDate, LocalDate endDate,
+                                      OutputStream output) {
+        long exported = exportTransaction.execute(status -> {
+            try (Stream<Expense> expenses = startDate == null && endDate == null
+                    ? expenseRepository.streamForExport(companyId)
+                    : expenseRepository.streamForExport(companyId,
+                            startDate != null ? startDate : EARLIEST_DATE, endDate != null ? endDate : LATEST_DATE)) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+                return format == Format.CSV ? writeCsv(expenses.iterator(), writer) : writeNdjson(expenses.iterator(), writer);
+            } catch (IOException e) {
+                // Usually the client went away; there is no response left to report it on
+                throw new UncheckedIOException(e);
+            }
+        });
+        logger.info("Exported {} expenses of company {} as {}", exported, companyId, format);
+    }
+
+    private long writeCsv(Iterator<Expense> expenses, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+
+        long count = 0;
+        while (expenses.hasNext()) {
+            Expense expense = expenses.next();
+            User employee = expense.getEmployee();
+            writer.write(String.valueOf(expense.getId()));
+            writer.write(',');
+            writer.write(expense.getExpenseDate().toString());
+            writer.write(',');
+            writeCsvField(writer, expense.getDescription());
+            writer.write(',');
+            writer.write(expense.getCategory().name());
+            writer.write(',');
+            writer.write(expense.getStatus().name());
+            writer.write(',');
+            writer.write(plain(expense.getAmount()));
+            writer.write(',');
+            writer.write(expense.getCurrency());
+            writer.write(',');
+            writer.write(plain(expense.getConvertedAmount()));
+            writer.write(',');
+            writeCsvField(writer, expense.getConvertedCurrency());
+            writer.write(',');
+            writer.write(plain(expense.getExchangeRate()));
+            writer.write(',');
+            writer.write(String.valueOf(employee.getId()));
+            writer.write(',');
+            writeCsvField(writer, employee.getFirstName() + " " + employee.getLastName());
+            writer.write(',');
+            writeCsvField(writer, employee.getEmail());
+            writer.write(',');
+            writeCsvField(writer, expense.getNotes());
+            writer.write(',');
+            writer.write(String.valueOf(expense.getCreatedAt()));
+            writer.write("\r\n");
+
+            if (++count % CHUNK_SIZE == 0) {
+                endChunk(writer);
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Expense> expenses, Writer writer) throws IOException {
+        JsonGenerator json = jsonFactory.createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long count = 0;
+        while (expenses.hasNext()) {
+            Expense expense = expenses.next();
+            User employee = expense.getEmployee();
+            json.writeStartObject();
+            json.writeNumberField("id", expense.getId());
+            json.writeStringField("expenseDate", expense.getExpenseDate().toString());
+            json.writeStringField("description", expense.getDescription());
+            json.writeStringField("category", expense.getCategory().name());
+            json.writeStringField("status", expense.getStatus().name());
+            json.writeNumberField("amount", expense.getAmount());
+            json.writeStringField("currency", expense.getCurrency());
+            json.writeNumberField("convertedAmount", expense.getConvertedAmount());
+            json.writeStringField("convertedCurrency", expense.getConvertedCurrency());
+            json.writeNumberField("exchangeRate", expense.getExchangeRate());
+            json.writeNumberField("employeeId", employee.getId());
+            json.writeStringField("employeeName", employee.getFirstName() + " " + employee.getLastName());
+            json.writeStringField("employeeEmail", employee.getEmail());
+            json.writeStringField("notes", expense.getNotes());
+            json.writeStringField("createdAt", String.valueOf(expense.getCreatedAt()));
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            if (++count % CHUNK_SIZE == 0) {
+                json.flush();
+                endChunk(writer);
+            }
+        }
+        json.flush();
+        return count;
+    }
+
+    private void endChunk(Writer writer) throws IOException {
+        entityManager.clear();
+        writer.flush();
+    }
+
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        // A spreadsheet would run a cell starting with one of these as a formula; the quote keeps it text
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String plain(BigDecimal value) {
+        return value != null ? value.toPlainString() : "";
+    }
+}
@@ -0,0 +1,295 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.dto.ExpenseImportResult;
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.repository.CompanyRepository;
+import com.expense.expensemanagement.repository.ExpenseRepository;
+import com.expense.expensemanagement.repository.UserRepository;
+import com.expense.expensemanagement.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk expense import from CSV. The file is read one record at a time, each row is converted at
+ * the rate recorded for its expense date (falling back to the current rate, fetched once per
+ * currency), and valid rows are persisted as drafts one transaction per batch, which Hibernate
+ * sends as JDBC insert batches. Invalid rows are reported by line and skipped; a record that
+ * cannot be parsed ends the import, keeping the rows before it.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseImportService.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CurrencyConversionService currencyConversionService;
+
+    @Autowired
+    private ExchangeRateHistoryService exchangeRateHistoryService;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+
+    public ExpenseImportService(PlatformTransactionManager transactionManager,
+                                @Value("${expense.import.batch-size:500}") int batchSize) {
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    public ExpenseImportResult importExpenses(UserPrincipal currentUser, InputStream input) throws IOException {
+        User importer = userRepository.findById(currentUser.getId())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        Import job = new Import(currentUser, importer.getCompany().getId(), importer.getCompany().getDefaultCurrency());
+
+        CsvRecordReader reader = new CsvRecordReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new RuntimeException("The file is empty");
+        }
+        job.readHeader(header);
+
+        List<String> record;
+        try {
+            while ((record = reader.next()) != null) {
+                job.addRecord(reader.getRecordLine(), record);
+            }
+            job.flush();
+        } catch (IOException e) {
+            // Earlier batches are already committed, so report them along with the row that broke the file
+            job.flush();
+            job.reject(reader.getRecordLine(), e.getMessage());
+        }
+
+        logger.info("User {} imported {} expenses, {} rows rejected", currentUser.getId(),
+                job.result.getImported(), job.result.getFailed());
+        return job.result;
+    }
+
+    private final class Import {
+        private final UserPrincipal currentUser;
+        private final Long companyId;
+        private final String companyCurrency;
+        private final ExpenseImportResult result = new ExpenseImportResult();
+        private final Map<String, BigDecimal> currentRates = new HashMap<>();
+        private final Map<String, ExchangeRateUnavailableException> unavailableRates = new HashMap<>();
+        private final Map<String, Long> employeeIdsByLogin = new HashMap<>();
+        private final List<Expense> batch = new ArrayList<>();
+        private final List<Long> batchEmployeeIds = new ArrayList<>();
+        private final List<Integer> batchLines = new ArrayList<>();
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        Import(UserPrincipal currentUser, Long companyId, String companyCurrency) {
+            this.currentUser = currentUser;
+            this.companyId = companyId;
+            this.companyCurrency = companyCurrency.toUpperCase(Locale.ROOT);
+        }
+
+        void readHeader(List<String> header) {
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).replace("\uFEFF", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+                columns.put(name, i);
+            }
+            for (String required : List.of("description", "amount", "currency", "category", "expensedate")) {
+                if (!columns.containsKey(required)) {
+                    throw new RuntimeException("Missing required column: " + required);
+                }
+            }
+            if (columns.containsKey("employee") && !currentUser.isAdmin()) {
+                throw new RuntimeException("Only admins can import expenses for other employees");
+            }
+        }
+
+        void addRecord(int line, List<String> record) {
+            Expense expense;
+            Long employeeId;
+            try {
+                expense = toExpense(record);
+                employeeId = resolveEmployee(field(record, "employee"));
+            } catch (RuntimeException e) {
+                reject(line, e.getMessage());
+                return;
+            }
+            batch.add(expense);
+            batchEmployeeIds.add(employeeId);
+            batchLines.add(line);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                batchTransaction.executeWithoutResult(status -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).setEmployee(userRepository.getReferenceById(batchEmployeeIds.get(i)));
+                        batch.get(i).setCompany(companyRepository.getReferenceById(companyId));
+                    }
+                    expenseRepository.saveAllAndFlush(batch);
+                    expenseRollupService.expensesAdded(batch);
+                    // Open-in-view keeps one persistence context for the whole request; without this
+                    // every imported expense would stay managed until the upload finishes
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                result.setImported(result.getImported() + batch.size());
+            } catch (DataAccessException e) {
+                String message = "Could not save row: " + e.getMostSpecificCause().getMessage();
+                batchLines.forEach(line -> reject(line, message));
+            }
+            batch.clear();
+            batchEmployeeIds.clear();
+            batchLines.clear();
+        }
+
+        private Expense toExpense(List<String> record) {
+            String description = field(record, "description");
+            if (description.isEmpty() || description.length() > 255) {
+                throw new RuntimeException("Description is required and must be at most 255 characters");
+            }
+
+            BigDecimal amount;
+            try {
+                amount = new BigDecimal(field(record, "amount"));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid amount: " + field(record, "amount"));
+            }
+            if (amount.compareTo(new BigDecimal("0.01")) < 0 || amount.scale() > 2) {
+                throw new RuntimeException("Amount must be at least 0.01 with at most 2 decimals");
+            }
+
+            String currency = field(record, "currency").toUpperCase(Locale.ROOT);
+            if (!currencyConversionService.isCurrencySupported(currency)) {
+                throw new RuntimeException("Unsupported currency: " + currency);
+            }
+
+            Expense.ExpenseCategory category;
+            try {
+                category = Expense.ExpenseCategory.valueOf(field(record, "category").toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Invalid category: " + field(record, "category"));
+            }
+
+            LocalDate expenseDate;
+            try {
+                expenseDate = LocalDate.parse(field(record, "expensedate"));
+            } catch (DateTimeParseException e) {
+                throw new RuntimeException("Invalid expense date, expected yyyy-MM-dd: " + field(record, "expensedate"));
+            }
+
+            String notes = field(record, "notes");
+            if (notes.length() > 500) {
+                throw new RuntimeException("Notes must be at most 500 characters");
+            }
+
+            BigDecimal exchangeRate = exchangeRate(currency, expenseDate);
+
+            Expense expense = new Expense(description, amount, currency, category, expenseDate, null, null);
+            expense.setExchangeRate(currencyConversionService.recordedRate(exchangeRate));
+            expense.setConvertedAmount(currencyConversionService.applyRate(amount, exchangeRate));
+            expense.setConvertedCurrency(companyCurrency);
+            expense.setNotes(notes.isEmpty() ? null : notes);
+            return expense;
+        }
+
+        private BigDecimal exchangeRate(String currency, LocalDate expenseDate) {
+            if (currency.equals(companyCurrency)) {
+                return BigDecimal.ONE;
+            }
+            BigDecimal rate = exchangeRateHistoryService.getRate(currency, companyCurrency, expenseDate);
+            if (rate != null) {
+                return rate;
+            }
+
+            // Not in the history; the current rate applies, looked up once per currency
+            rate = currentRates.get(currency);
+            if (rate != null) {
+                return rate;
+            }
+            // Remember a missing rate so the remaining rows in that currency fail without waiting again
+            ExchangeRateUnavailableException unavailable = unavailableRates.get(currency);
+            if (unavailable != null) {
+                throw unavailable;
+            }
+            try {
+                rate = currencyConversionService.getExchangeRate(currency, companyCurrency);
+            } catch (ExchangeRateUnavailableException e) {
+                unavailableRates.put(currency, e);
+                throw e;
+            }
+            currentRates.put(currency, rate);
+            return rate;
+        }
+
+        private Long resolveEmployee(String login) {
+            if (login.isEmpty()) {
+                return currentUser.getId();
+            }
+            Long employeeId = employeeIdsByLogin.computeIfAbsent(login, key ->
+                    userRepository.findByUsernameOrEmail(key).stream()
+                            .filter(user -> user.getCompany().getId().equals(companyId))
+                            .map(User::getId)
+                            .findFirst()
+                            .orElse(-1L));
+            if (employeeId < 0) {
+                throw new RuntimeException("Unknown employee: " + login);
+            }
+            return employeeId;
+        }
+
+        private String field(List<String> record, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < record.size() ? record.get(index).trim() : "";
+        }
+
+        void reject(int line, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+                result.getErrors().add(new ExpenseImportResult.RowError(line, message));
+            } else {
+                result.setErrorsTruncated(true);
+            }
+        }
+    }
+}
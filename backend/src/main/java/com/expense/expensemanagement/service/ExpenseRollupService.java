@@ -0,0 +1,221 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.dto.ExpenseDashboardDto;
+import com.expense.expensemanagement.dto.ExpenseRollupDto;
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.ExpenseRollup;
+import com.expense.expensemanagement.repository.CompanyRepository;
+import com.expense.expensemanagement.repository.ExpenseRepository;
+import com.expense.expensemanagement.repository.ExpenseRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the expense_rollups table. Every change to an expense's status, amount, category or
+ * date applies a count and amount delta to its (company, month, category, status) bucket in the
+ * same transaction, so dashboards read a handful of rows instead of scanning expenses.
+ * <p>
+ * Writers and rebuilds lock the company row before touching any of its rollups. That keeps one
+ * lock order for both, and with no concurrent inserter an update that finds no row can insert it.
+ */
+@Service
+public class ExpenseRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpenseRollupService.class);
+
+    @Autowired
+    private ExpenseRollupRepository expenseRollupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    private final TransactionTemplate rebuildTransaction;
+
+    public ExpenseRollupService(PlatformTransactionManager transactionManager) {
+        this.rebuildTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expenseAdded(Expense expense) {
+        Bucket bucket = Bucket.of(expense);
+        lockCompany(bucket.companyId);
+        apply(bucket, 1, amountOf(expense));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expensesAdded(List<Expense> expenses) {
+        Map<Bucket, MoneyTotal> totals = new HashMap<>();
+        for (Expense expense : expenses) {
+            totals.computeIfAbsent(Bucket.of(expense), bucket -> new MoneyTotal()).add(expense.getConvertedAmount());
+        }
+        totals.keySet().stream().map(bucket -> bucket.companyId).distinct().sorted().forEach(this::lockCompany);
+        totals.forEach((bucket, total) -> apply(bucket, total.getCount(), total.toBigDecimal()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expenseRemoved(Expense expense) {
+        Bucket bucket = Bucket.of(expense);
+        lockCompany(bucket.companyId);
+        apply(bucket, -1, amountOf(expense).negate());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Expense expense, Expense.ExpenseStatus previousStatus) {
+        if (previousStatus == expense.getStatus()) {
+            return;
+        }
+        Bucket current = Bucket.of(expense);
+        lockCompany(current.companyId);
+        apply(new Bucket(current.companyId, current.period, current.category, previousStatus), -1, amountOf(expense).negate());
+        apply(current, 1, amountOf(expense));
+    }
+
+    @Transactional(readOnly = true)
+    public ExpenseDashboardDto getDashboard(Long companyId, YearMonth from, YearMonth to) {
+        List<ExpenseRollupDto> cells = expenseRollupRepository.findDashboard(companyId, from.atDay(1), to.atDay(1));
+
+        // Totals indexed by enum ordinal and kept in minor units while the cells are summed
+        Expense.ExpenseStatus[] statuses = Expense.ExpenseStatus.values();
+        Expense.ExpenseCategory[] categories = Expense.ExpenseCategory.values();
+        MoneyTotal[] byStatus = newTotals(statuses.length);
+        MoneyTotal[] byCategory = newTotals(categories.length);
+        MoneyTotal total = new MoneyTotal();
+        long expenseCount = 0;
+        for (ExpenseRollupDto cell : cells) {
+            // Added as BigDecimal so a cell beyond a long of minor units is carried rather than rejected
+            BigDecimal amount = cell.getTotalAmount();
+            byStatus[cell.getStatus().ordinal()].add(amount);
+            byCategory[cell.getCategory().ordinal()].add(amount);
+            total.add(amount);
+            expenseCount += cell.getExpenseCount();
+        }
+
+        Map<Expense.ExpenseStatus, BigDecimal> totalByStatus = new EnumMap<>(Expense.ExpenseStatus.class);
+        for (Expense.ExpenseStatus status : statuses) {
+            totalByStatus.put(status, byStatus[status.ordinal()].toBigDecimal());
+        }
+        Map<Expense.ExpenseCategory, BigDecimal> totalByCategory = new EnumMap<>(Expense.ExpenseCategory.class);
+        for (Expense.ExpenseCategory category : categories) {
+            totalByCategory.put(category, byCategory[category.ordinal()].toBigDecimal());
+        }
+        return new ExpenseDashboardDto(from, to, cells, totalByStatus, totalByCategory, expenseCount, total.toBigDecimal());
+    }
+
+    /**
+     * Recomputes every company's rollups from the expenses table, one transaction per company.
+     */
+    @Scheduled(cron = "${expense.rollup.rebuild-cron:0 15 4 * * SUN}")
+    public void rebuild() {
+        List<Long> companyIds = companyRepository.findAllIds();
+        companyIds.forEach(this::rebuild);
+        logger.info("Rebuilt expense rollups for {} companies", companyIds.size());
+    }
+
+    public void rebuild(Long companyId) {
+        rebuildTransaction.executeWithoutResult(status -> {
+            // Writers wait on this lock, so none of their deltas land between the delete and the reinsert
+            lockCompany(companyId);
+            expenseRollupRepository.deleteByCompany(companyId);
+
+            List<ExpenseRollup> rollups = new ArrayList<>();
+            for (Object[] row : expenseRepository.aggregateForRollup(companyId)) {
+                LocalDate period = LocalDate.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue(), 1);
+                rollups.add(new ExpenseRollup(companyId, period, (Expense.ExpenseCategory) row[2],
+                        (Expense.ExpenseStatus) row[3], ((Number) row[4]).longValue(), (BigDecimal) row[5]));
+            }
+            expenseRollupRepository.saveAll(rollups);
+        });
+    }
+
+    /**
+     * Fills the table on the first start after upgrading, when expenses exist but no rollups do.
+     */
+    public void rebuildIfEmpty() {
+        if (expenseRollupRepository.count() == 0 && expenseRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void lockCompany(Long companyId) {
+        companyRepository.findByIdForUpdate(companyId);
+    }
+
+    // Caller holds the company lock, so no other transaction can insert the bucket in between
+    private void apply(Bucket bucket, long count, BigDecimal amount) {
+        int updated = expenseRollupRepository.addToBucket(bucket.companyId, bucket.period, bucket.category,
+                bucket.status, count, amount);
+        if (updated == 0) {
+            expenseRollupRepository.save(new ExpenseRollup(bucket.companyId, bucket.period, bucket.category,
+                    bucket.status, count, amount));
+        }
+    }
+
+    private static MoneyTotal[] newTotals(int length) {
+        MoneyTotal[] totals = new MoneyTotal[length];
+        for (int i = 0; i < length; i++) {
+            totals[i] = new MoneyTotal();
+        }
+        return totals;
+    }
+
+    private static BigDecimal amountOf(Expense expense) {
+        return expense.getConvertedAmount() != null ? expense.getConvertedAmount() : BigDecimal.ZERO;
+    }
+
+    private static final class Bucket {
+        private final Long companyId;
+        private final LocalDate period;
+        private final Expense.ExpenseCategory category;
+        private final Expense.ExpenseStatus status;
+
+        Bucket(Long companyId, LocalDate period, Expense.ExpenseCategory category, Expense.ExpenseStatus status) {
+            this.companyId = companyId;
+            this.period = period;
+            this.category = category;
+            this.status = status;
+        }
+
+        static Bucket of(Expense expense) {
+            return new Bucket(expense.getCompany().getId(), expense.getExpenseDate().withDayOfMonth(1),
+                    expense.getCategory(), expense.getStatus());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Bucket)) {
+                return false;
+            }
+            Bucket other = (Bucket) o;
+            return companyId.equals(other.companyId) && period.equals(other.period)
+                    && category == other.category && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(companyId, period, category, status);
+        }
+    }
+}
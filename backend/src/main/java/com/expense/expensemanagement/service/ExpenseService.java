@@ -3,11 +3,17 @@ package com.expense.expensemanagement.service;
 import com.expense.expensemanagement.dto.*;
 import com.expense.expensemanagement.model.*;
 import com.expense.expensemanagement.repository.*;
+import com.expense.expensemanagement.security.AccessPolicy;
+import com.expense.expensemanagement.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -45,6 +51,16 @@ public class ExpenseService {
     @Autowired
     private CurrencyConversionService currencyConversionService;
 
+    @Autowired
+    private AccessPolicy accessPolicy;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Sort SEARCH_ORDER = Sort.by(Sort.Order.desc("expenseDate"), Sort.Order.desc("id"));
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
@@ -54,18 +70,15 @@ public class ExpenseService {
 
         Company company = employee.getCompany();
         String companyCurrency = company.getDefaultCurrency();
+        requireSupportedCurrency(createExpenseRequest.getCurrency());
 
         // Convert currency if needed
-        BigDecimal convertedAmount = currencyConversionService.convertCurrency(
-                createExpenseRequest.getAmount(),
-                createExpenseRequest.getCurrency(),
-                companyCurrency
-        );
-
         BigDecimal exchangeRate = currencyConversionService.getExchangeRate(
                 createExpenseRequest.getCurrency(),
-                companyCurrency
+                companyCurrency,
+                createExpenseRequest.getExpenseDate()
         );
+        BigDecimal convertedAmount = currencyConversionService.applyRate(createExpenseRequest.getAmount(), exchangeRate);
 
         Expense expense = new Expense(
                 createExpenseRequest.getDescription(),
@@ -79,11 +92,12 @@ public class ExpenseService {
 
         expense.setConvertedAmount(convertedAmount);
         expense.setConvertedCurrency(companyCurrency);
-        expense.setExchangeRate(exchangeRate);
+        expense.setExchangeRate(currencyConversionService.recordedRate(exchangeRate));
         expense.setNotes(createExpenseRequest.getNotes());
         expense.setStatus(Expense.ExpenseStatus.DRAFT);
 
         expense = expenseRepository.save(expense);
+        expenseRollupService.expenseAdded(expense);
         return convertToDto(expense);
     }
 
@@ -102,6 +116,7 @@ public class ExpenseService {
 
         expense.setStatus(Expense.ExpenseStatus.SUBMITTED);
         expense = expenseRepository.save(expense);
+        expenseRollupService.statusChanged(expense, Expense.ExpenseStatus.DRAFT);
 
         // TODO: Trigger approval workflow
         // approvalWorkflowService.startApprovalWorkflow(expense);
@@ -144,58 +159,113 @@ public class ExpenseService {
         }
     }
 
-    public Page<ExpenseDto> getExpensesByEmployee(Long employeeId, Pageable pageable) {
-        Page<Expense> expenses = expenseRepository.findByEmployeeIdAndIsActiveTrueOrderByCreatedAtDesc(employeeId, pageable);
-        return expenses.map(this::convertToDto);
+    public Page<ExpenseSummaryDto> getExpensesByEmployee(Long employeeId, Pageable pageable) {
+        return expenseRepository.findSummariesByEmployee(employeeId, pageable);
     }
 
-    public ExpenseDto getExpense(Long expenseId, Long userId, Long companyId) {
+    public Slice<ExpenseSummaryDto> getExpenseSliceByEmployee(Long employeeId, Pageable pageable) {
+        return expenseRepository.findSummarySliceByEmployee(employeeId, pageable);
+    }
+
+    public CursorPage<ExpenseSummaryDto> getExpensesByEmployee(Long employeeId, String cursor, int size) {
+        int limit = pageSize(size);
+        List<ExpenseSummaryDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = expenseRepository.findFirstKeysetPageByEmployee(employeeId, PageRequest.of(0, limit + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = expenseRepository.findKeysetPageByEmployee(employeeId, after.getCreatedAt(), after.getId(),
+                    PageRequest.of(0, limit + 1));
+        }
+        return CursorPage.of(rows, limit, ExpenseSummaryDto::toCursor);
+    }
+
+    public ExpenseDto getExpense(Long expenseId, UserPrincipal currentUser) {
         Expense expense = expenseRepository.findById(expenseId)
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
 
         // Check permissions
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!expense.getEmployee().getId().equals(userId) && 
-            !user.isAdmin() && 
-            !expense.getCompany().getId().equals(companyId)) {
+        if (!accessPolicy.canViewExpense(currentUser, expense)) {
             throw new RuntimeException("You don't have permission to view this expense");
         }
 
         return convertToDto(expense);
     }
 
-    public List<ExpenseDto> getPendingApprovalsForUser(Long userId) {
-        List<ApprovalStep> pendingSteps = approvalStepRepository.findPendingApprovalsForUser(userId);
-        return pendingSteps.stream()
-                .map(step -> convertToDto(step.getExpense()))
-                .collect(Collectors.toList());
+    public List<ExpenseSummaryDto> getPendingApprovalsForUser(Long userId) {
+        return approvalStepRepository.findPendingSummaries(userId);
     }
 
-    public Page<ExpenseDto> getTeamExpenses(Long managerId, Pageable pageable) {
-        List<User> subordinates = userRepository.findActiveSubordinatesByManager(managerId);
-        List<Long> subordinateIds = subordinates.stream()
-                .map(User::getId)
-                .collect(Collectors.toList());
+    public Page<ExpenseSummaryDto> getTeamExpenses(Long managerId, Pageable pageable) {
+        return expenseRepository.findTeamSummaries(managerId, pageable);
+    }
 
-        // This would need a custom query in the repository
-        // For now, return empty page
-        return Page.empty();
+    public Slice<ExpenseSummaryDto> getTeamExpenseSlice(Long managerId, Pageable pageable) {
+        return expenseRepository.findTeamSummarySlice(managerId, pageable);
+    }
+
+    public CursorPage<ExpenseSummaryDto> getTeamExpenses(Long managerId, String cursor, int size) {
+        int limit = pageSize(size);
+        List<ExpenseSummaryDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = expenseRepository.findFirstKeysetPageByTeam(managerId, PageRequest.of(0, limit + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = expenseRepository.findKeysetPageByTeam(managerId, after.getCreatedAt(), after.getId(),
+                    PageRequest.of(0, limit + 1));
+        }
+        return CursorPage.of(rows, limit, ExpenseSummaryDto::toCursor);
     }
 
-    public Page<ExpenseDto> getAllCompanyExpenses(Long companyId, Pageable pageable) {
-        Page<Expense> expenses = expenseRepository.findByCompanyIdOrderByCreatedAtDesc(companyId, pageable);
-        return expenses.map(this::convertToDto);
+    public Page<ExpenseSummaryDto> getAllCompanyExpenses(Long companyId, Pageable pageable) {
+        return expenseRepository.findSummariesByCompany(companyId, pageable);
     }
 
-    public Page<ExpenseDto> searchExpenses(Long userId, Long companyId, String role,
+    public Slice<ExpenseSummaryDto> getCompanyExpenseSlice(Long companyId, Pageable pageable) {
+        return expenseRepository.findSummarySliceByCompany(companyId, pageable);
+    }
+
+    public CursorPage<ExpenseSummaryDto> getAllCompanyExpenses(Long companyId, String cursor, int size) {
+        int limit = pageSize(size);
+        List<ExpenseSummaryDto> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = expenseRepository.findFirstKeysetPageByCompany(companyId, PageRequest.of(0, limit + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            rows = expenseRepository.findKeysetPageByCompany(companyId, after.getCreatedAt(), after.getId(),
+                    PageRequest.of(0, limit + 1));
+        }
+        return CursorPage.of(rows, limit, ExpenseSummaryDto::toCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ExpenseDto> searchExpenses(UserPrincipal currentUser,
                                          String description, Expense.ExpenseCategory category,
                                          Expense.ExpenseStatus status, LocalDate startDate,
                                          LocalDate endDate, Pageable pageable) {
-        // This would need custom repository methods based on user role and search criteria
-        // For now, return user's own expenses
-        return getExpensesByEmployee(userId, pageable);
+        Specification<Expense> spec = Specification.where(searchScope(currentUser))
+                .and(ExpenseSpecifications.hasStatus(status))
+                .and(ExpenseSpecifications.hasCategory(category))
+                .and(ExpenseSpecifications.expenseDateFrom(startDate))
+                .and(ExpenseSpecifications.expenseDateTo(endDate))
+                .and(ExpenseSpecifications.descriptionContains(description));
+
+        if (pageable.getSort().isUnsorted()) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), SEARCH_ORDER);
+        }
+        return expenseRepository.findAll(spec, pageable).map(this::convertToDto);
+    }
+
+    // Admins search the whole company, managers everything in their part of the hierarchy, everyone else their own
+    private Specification<Expense> searchScope(UserPrincipal currentUser) {
+        Specification<Expense> company = ExpenseSpecifications.inCompany(currentUser.getCompanyId());
+        if (currentUser.isAdmin()) {
+            return company;
+        }
+        if (currentUser.isManager()) {
+            return company.and(ExpenseSpecifications.inHierarchyOf(currentUser.getId()));
+        }
+        return company.and(ExpenseSpecifications.byEmployee(currentUser.getId()));
     }
 
     public ExpenseDto updateExpense(Long expenseId, ExpenseDto expenseDto, Long userId) {
@@ -210,6 +280,13 @@ public class ExpenseService {
         if (expense.getStatus() != Expense.ExpenseStatus.DRAFT) {
             throw new RuntimeException("Only draft expenses can be updated");
         }
+        requireSupportedCurrency(expenseDto.getCurrency());
+
+        // Amount, category and date may all move the expense to another rollup bucket
+        expenseRollupService.expenseRemoved(expense);
+        boolean amountChanged = !expense.getCurrency().equals(expenseDto.getCurrency()) ||
+                expense.getAmount().compareTo(expenseDto.getAmount()) != 0 ||
+                !expense.getExpenseDate().equals(expenseDto.getExpenseDate());
 
         expense.setDescription(expenseDto.getDescription());
         expense.setAmount(expenseDto.getAmount());
@@ -218,26 +295,20 @@ public class ExpenseService {
         expense.setExpenseDate(expenseDto.getExpenseDate());
         expense.setNotes(expenseDto.getNotes());
 
-        // Recalculate conversion if currency changed
-        if (!expense.getCurrency().equals(expenseDto.getCurrency()) || 
-            !expense.getAmount().equals(expenseDto.getAmount())) {
-            
-            BigDecimal convertedAmount = currencyConversionService.convertCurrency(
-                    expenseDto.getAmount(),
-                    expenseDto.getCurrency(),
-                    expense.getCompany().getDefaultCurrency()
-            );
-
+        // Recalculate conversion if currency, amount or date changed
+        if (amountChanged) {
             BigDecimal exchangeRate = currencyConversionService.getExchangeRate(
                     expenseDto.getCurrency(),
-                    expense.getCompany().getDefaultCurrency()
+                    expense.getCompany().getDefaultCurrency(),
+                    expenseDto.getExpenseDate()
             );
 
-            expense.setConvertedAmount(convertedAmount);
-            expense.setExchangeRate(exchangeRate);
+            expense.setConvertedAmount(currencyConversionService.applyRate(expenseDto.getAmount(), exchangeRate));
+            expense.setExchangeRate(currencyConversionService.recordedRate(exchangeRate));
         }
 
         expense = expenseRepository.save(expense);
+        expenseRollupService.expenseAdded(expense);
         return convertToDto(expense);
     }
 
@@ -254,9 +325,17 @@ public class ExpenseService {
             throw new RuntimeException("Only draft expenses can be deleted");
         }
 
+        expenseRollupService.expenseRemoved(expense);
         expenseRepository.delete(expense);
     }
 
+    // Otherwise the rate lookup fails as unavailable, which reads as a provider outage rather than bad input
+    private void requireSupportedCurrency(String currency) {
+        if (!currencyConversionService.isCurrencySupported(currency)) {
+            throw new RuntimeException("Unsupported currency: " + currency);
+        }
+    }
+
     public ExpenseDto convertToDto(Expense expense) {
         ExpenseDto dto = new ExpenseDto(
                 expense.getId(),
@@ -298,6 +377,10 @@ public class ExpenseService {
         return dto;
     }
 
+    static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
     private ApprovalStepDto convertApprovalStepToDto(ApprovalStep step) {
         return new ApprovalStepDto(
                 step.getId(),
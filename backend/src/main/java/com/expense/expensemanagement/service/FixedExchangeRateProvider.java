@@ -0,0 +1,59 @@
+package com.expense.expensemanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Serves rates from currency.fixed-rates, a list like "EUR:0.92,GBP:0.79" giving the value of
+ * one US dollar in each currency. Never touches the network. The same rates are served for every
+ * past day, so history can be backfilled offline.
+ */
+@Component
+@ConditionalOnProperty(name = "currency.provider", havingValue = "fixed")
+public class FixedExchangeRateProvider implements ExchangeRateProvider {
+
+    private final Map<String, BigDecimal> usdRates = new HashMap<>();
+
+    public FixedExchangeRateProvider(@Value("${currency.fixed-rates:}") String fixedRates) {
+        usdRates.put("USD", BigDecimal.ONE);
+        for (String entry : fixedRates.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid currency.fixed-rates entry: " + entry);
+            }
+            usdRates.put(parts[0].trim().toUpperCase(Locale.ROOT), new BigDecimal(parts[1].trim()));
+        }
+    }
+
+    @Override
+    public Map<String, BigDecimal> fetchRates(String baseCurrency) {
+        BigDecimal base = usdRates.get(baseCurrency.toUpperCase(Locale.ROOT));
+        Map<String, BigDecimal> rates = new HashMap<>();
+        if (base == null) {
+            return rates;
+        }
+        usdRates.forEach((currency, usdRate) -> rates.put(currency, usdRate.divide(base, MathContext.DECIMAL64)));
+        return rates;
+    }
+
+    @Override
+    public boolean supportsHistory() {
+        return true;
+    }
+
+    @Override
+    public Map<String, BigDecimal> fetchRates(String baseCurrency, LocalDate date) {
+        return fetchRates(baseCurrency);
+    }
+}
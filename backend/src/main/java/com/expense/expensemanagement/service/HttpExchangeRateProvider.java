@@ -0,0 +1,79 @@
+package com.expense.expensemanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+@ConditionalOnProperty(name = "currency.provider", havingValue = "http", matchIfMissing = true)
+public class HttpExchangeRateProvider implements ExchangeRateProvider {
+
+    @Value("${currency.api.key:}")
+    private String apiKey;
+
+    @Value("${currency.api.base-url:https://api.exchangerate-api.com/v4/latest}")
+    private String baseUrl;
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    public HttpExchangeRateProvider() {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @Override
+    public Map<String, BigDecimal> fetchRates(String baseCurrency) throws IOException {
+        String url = baseUrl + "/" + baseCurrency.toUpperCase(Locale.ROOT);
+        if (!apiKey.isEmpty()) {
+            url += "?access_key=" + apiKey;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching rates for " + baseCurrency);
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Rate API returned HTTP " + response.statusCode() + " for " + baseCurrency);
+        }
+
+        JsonNode rates = objectMapper.readTree(response.body()).get("rates");
+        if (rates == null || !rates.isObject()) {
+            throw new IOException("Rate API response for " + baseCurrency + " has no rates");
+        }
+
+        Map<String, BigDecimal> result = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = rates.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            result.put(field.getKey().toUpperCase(Locale.ROOT), field.getValue().decimalValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.expense.expensemanagement.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves each entity's id sequence past the ids already in its table. Rows written while ids came
+ * from auto-increment columns would otherwise collide with the first blocks the sequences hand out.
+ */
+@Service
+public class IdSequenceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceService.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void alignWithExistingIds() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Dialect dialect = sessionFactory.getJdbcServices().getDialect();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof SequenceStyleGenerator generator
+                    && persister instanceof AbstractEntityPersister entityPersister) {
+                align(entityPersister.getTableName(), entityPersister.getIdentifierColumnNames()[0],
+                        generator.getDatabaseStructure(), dialect);
+            }
+        });
+    }
+
+    private void align(String table, String idColumn, DatabaseStructure structure, Dialect dialect) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + idColumn + ") FROM " + table, Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // The pooled optimizer hands out the block just below the value it reads
+        long next = maxId + structure.getIncrementSize() + 1;
+        String name = structure.getPhysicalName().render();
+        if (structure.isPhysicalSequence()) {
+            Long current = jdbcTemplate.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(name), Long.class);
+            if (current != null && current < next) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + name + " RESTART WITH " + next);
+                logger.info("Moved sequence {} past existing ids of {}", name, table);
+            }
+        } else if (jdbcTemplate.update("UPDATE " + name + " SET " + SequenceStyleGenerator.DEF_VALUE_COLUMN
+                + " = ? WHERE " + SequenceStyleGenerator.DEF_VALUE_COLUMN + " < ?", next, next) > 0) {
+            logger.info("Moved id table {} past existing ids of {}", name, table);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.expense.expensemanagement.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Exact running count and sum of money amounts at a fixed scale. The sum is kept as a long of
+ * minor units (cents at scale 2), so adding is plain arithmetic without BigDecimal allocation;
+ * a sum that outgrows a long is carried into a BigDecimal instead of wrapping. Amounts are only
+ * converted at the edges, when they are added and when the total is read.
+ */
+public final class MoneyTotal {
+
+    public static final int DEFAULT_SCALE = 2;
+
+    private final int scale;
+    private long count;
+    private long minorUnits;
+    private BigDecimal carried;
+
+    public MoneyTotal() {
+        this(DEFAULT_SCALE);
+    }
+
+    public MoneyTotal(int scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * Converts an amount to minor units; fails rather than round if it has more decimals than the
+     * scale, and if it does not fit in a long; add(BigDecimal) carries such an amount instead.
+     */
+    public static long toMinorUnits(BigDecimal amount, int scale) {
+        // Stays on BigDecimal's compact long path; unscaledValue() would build a BigInteger every call
+        return amount.movePointRight(scale).longValueExact();
+    }
+
+    public static BigDecimal fromMinorUnits(long minorUnits, int scale) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    public MoneyTotal add(BigDecimal amount) {
+        if (amount == null) {
+            // Counted, but adds nothing
+            count++;
+            return this;
+        }
+        try {
+            return add(toMinorUnits(amount, scale));
+        } catch (ArithmeticException e) {
+            // Too large for a long on its own; still fails if it would need rounding
+            BigDecimal scaled = amount.setScale(scale, RoundingMode.UNNECESSARY);
+            count++;
+            carry(scaled);
+            return this;
+        }
+    }
+
+    public MoneyTotal add(long amountMinorUnits) {
+        count++;
+        addMinorUnits(amountMinorUnits);
+        return this;
+    }
+
+    public MoneyTotal add(MoneyTotal other) {
+        count += other.count;
+        addMinorUnits(other.minorUnits);
+        if (other.carried != null) {
+            carry(other.carried);
+        }
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public BigDecimal toBigDecimal() {
+        BigDecimal total = fromMinorUnits(minorUnits, scale);
+        return carried != null ? carried.add(total) : total;
+    }
+
+    private void addMinorUnits(long amountMinorUnits) {
+        long sum = minorUnits + amountMinorUnits;
+        // Overflow only when both operands share a sign that the result does not
+        if (((minorUnits ^ sum) & (amountMinorUnits ^ sum)) < 0) {
+            carry(fromMinorUnits(minorUnits, scale));
+            minorUnits = amountMinorUnits;
+        } else {
+            minorUnits = sum;
+        }
+    }
+
+    private void carry(BigDecimal amount) {
+        carried = carried != null ? carried.add(amount) : amount;
+    }
+}
@@ -0,0 +1,144 @@
+package com.expense.expensemanagement.service;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Anchor rates as of one moment, with the binary format they are exported and loaded in.
+ * <p>
+ * Layout, big-endian: the magic "EXRS", a short version, a byte rate scale, the three-letter
+ * anchor code, the creation time as epoch milliseconds, an int entry count, then per entry a
+ * three-letter code and the rate as a long of units at the rate scale. A CRC32 of everything
+ * before it closes the file. Every field has a fixed width, so reading is offset arithmetic.
+ */
+public final class RateSnapshot {
+
+    private static final int MAGIC = 0x45585253; // "EXRS"
+    private static final short VERSION = 1;
+    private static final int SCALE = 10;
+    private static final int CODE_LENGTH = 3;
+    private static final int HEADER_LENGTH = 4 + 2 + 1 + CODE_LENGTH + 8 + 4;
+    private static final int ENTRY_LENGTH = CODE_LENGTH + 8;
+    private static final int CHECKSUM_LENGTH = 4;
+
+    private final String anchorCurrency;
+    private final Instant createdAt;
+    private final Map<String, BigDecimal> rates;
+
+    public RateSnapshot(String anchorCurrency, Instant createdAt, Map<String, BigDecimal> rates) {
+        this.anchorCurrency = anchorCurrency;
+        this.createdAt = createdAt;
+        this.rates = Collections.unmodifiableMap(new LinkedHashMap<>(rates));
+    }
+
+    public String getAnchorCurrency() {
+        return anchorCurrency;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    /**
+     * Reads a snapshot from the buffer's remaining bytes, checking the checksum before anything else.
+     */
+    public static RateSnapshot read(ByteBuffer buffer) throws IOException {
+        ByteBuffer data = buffer.slice();
+        if (data.remaining() < HEADER_LENGTH + CHECKSUM_LENGTH) {
+            throw new IOException("Rate snapshot is truncated");
+        }
+        int checkedLength = data.remaining() - CHECKSUM_LENGTH;
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate().limit(checkedLength));
+        if ((int) crc.getValue() != data.getInt(checkedLength)) {
+            throw new IOException("Rate snapshot checksum mismatch");
+        }
+
+        try {
+            if (data.getInt() != MAGIC) {
+                throw new IOException("Not a rate snapshot");
+            }
+            short version = data.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported rate snapshot version " + version);
+            }
+            int scale = data.get();
+            String anchor = readCode(data);
+            Instant createdAt = Instant.ofEpochMilli(data.getLong());
+            int count = data.getInt();
+            if (count < 0 || (long) count * ENTRY_LENGTH != checkedLength - HEADER_LENGTH) {
+                throw new IOException("Rate snapshot length does not match its entry count");
+            }
+            Map<String, BigDecimal> rates = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                rates.put(readCode(data), BigDecimal.valueOf(data.getLong(), scale));
+            }
+            return new RateSnapshot(anchor, createdAt, rates);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Rate snapshot is truncated");
+        }
+    }
+
+    /**
+     * Writes the snapshot; codes that are not three letters and rates too large for the format are left out.
+     */
+    public void write(OutputStream output) throws IOException {
+        Map<String, Long> entries = new LinkedHashMap<>();
+        rates.forEach((currency, rate) -> {
+            if (currency.length() == CODE_LENGTH && rate.signum() > 0) {
+                try {
+                    entries.put(currency, rate.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+                } catch (ArithmeticException e) {
+                    // Beyond a long at this scale; no real currency pair gets there
+                }
+            }
+        });
+
+        CheckedOutputStream checked = new CheckedOutputStream(output, new CRC32());
+        DataOutputStream data = new DataOutputStream(checked);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeByte(SCALE);
+        writeCode(data, anchorCurrency);
+        data.writeLong(createdAt.toEpochMilli());
+        data.writeInt(entries.size());
+        for (Map.Entry<String, Long> entry : entries.entrySet()) {
+            writeCode(data, entry.getKey());
+            data.writeLong(entry.getValue());
+        }
+        data.flush();
+        // The checksum itself goes straight to the output, outside what it covers
+        new DataOutputStream(output).writeInt((int) checked.getChecksum().getValue());
+        output.flush();
+    }
+
+    private static String readCode(ByteBuffer data) {
+        byte[] code = new byte[CODE_LENGTH];
+        data.get(code);
+        return new String(code, StandardCharsets.US_ASCII);
+    }
+
+    private static void writeCode(DataOutputStream data, String code) throws IOException {
+        byte[] bytes = code.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length != CODE_LENGTH) {
+            throw new IOException("Currency code must be three letters: " + code);
+        }
+        data.write(bytes);
+    }
+}
@@ -0,0 +1,163 @@
+package com.expense.expensemanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+
+/**
+ * Keeps the rate table in step with a snapshot file at currency.snapshot.path. The file is
+ * memory-mapped and checked at startup, before the first provider fetch, and polled afterwards
+ * so a new snapshot dropped in place replaces the rates without a restart; nodes without
+ * internet access run on these snapshots alone, with currency.provider set to none. Unless
+ * currency.snapshot.write is off, every newer table fetched from the provider is written back
+ * to the file, so the next start has rates immediately.
+ */
+@Service
+public class RateSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateSnapshotService.class);
+
+    // Far beyond any real snapshot; anything larger is not worth mapping
+    private static final long MAX_SNAPSHOT_BYTES = 1024 * 1024;
+
+    @Autowired
+    private CurrencyConversionService currencyConversionService;
+
+    private final Path path;
+    private final boolean writeBack;
+
+    // Size and modification time of the file last read or written, and the newest rates it held
+    private String fileStamp;
+    private Instant fileCreatedAt;
+
+    public RateSnapshotService(@Value("${currency.snapshot.path:}") String path,
+                               @Value("${currency.snapshot.write:true}") boolean writeBack) {
+        this.path = path.isBlank() ? null : Paths.get(path);
+        this.writeBack = writeBack;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void loadAtStartup() {
+        poll();
+    }
+
+    @Scheduled(fixedDelayString = "${currency.snapshot.poll-interval:PT30S}", initialDelayString = "${currency.snapshot.poll-interval:PT30S}")
+    public synchronized void poll() {
+        if (path == null) {
+            return;
+        }
+        loadIfChanged();
+        if (writeBack) {
+            writeIfNewer();
+        }
+    }
+
+    /**
+     * The current rates in snapshot form, for copying to nodes that cannot reach the provider.
+     */
+    public byte[] export() {
+        RateSnapshot snapshot = currencyConversionService.currentSnapshot();
+        if (snapshot == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No exchange rates loaded");
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            snapshot.write(output);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write rate snapshot", e);
+        }
+        return output.toByteArray();
+    }
+
+    public static RateSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_SNAPSHOT_BYTES) {
+                throw new IOException("Rate snapshot is " + size + " bytes, more than " + MAX_SNAPSHOT_BYTES);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return RateSnapshot.read(buffer);
+        }
+    }
+
+    private void loadIfChanged() {
+        String stamp;
+        try {
+            stamp = stampOf(path);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            logger.warn("Could not check rate snapshot {}: {}", path, e.toString());
+            return;
+        }
+        if (stamp.equals(fileStamp)) {
+            return;
+        }
+        // Remembered even if the file is bad, so it is not read again until it changes
+        fileStamp = stamp;
+
+        try {
+            RateSnapshot snapshot = read(path);
+            fileCreatedAt = snapshot.getCreatedAt();
+            if (currencyConversionService.install(snapshot)) {
+                logger.info("Loaded {} {} rates from snapshot {} created at {}", snapshot.getRates().size(),
+                        snapshot.getAnchorCurrency(), path, snapshot.getCreatedAt());
+            }
+        } catch (IOException e) {
+            logger.warn("Rejected rate snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void writeIfNewer() {
+        RateSnapshot snapshot = currencyConversionService.currentSnapshot();
+        if (snapshot == null || (fileCreatedAt != null && !snapshot.getCreatedAt().isAfter(fileCreatedAt))) {
+            return;
+        }
+        // Written aside and moved into place, so a reader never maps a half-written file
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+                snapshot.write(output);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileStamp = stampOf(path);
+            fileCreatedAt = snapshot.getCreatedAt();
+            logger.debug("Wrote rate snapshot {} created at {}", path, snapshot.getCreatedAt());
+        } catch (IOException e) {
+            logger.warn("Could not write rate snapshot {}: {}", path, e.toString());
+        }
+    }
+
+    private static String stampOf(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return attributes.size() + "@" + attributes.lastModifiedTime().toMillis();
+    }
+}
@@ -0,0 +1,203 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.model.RefreshToken;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.repository.RefreshTokenRepository;
+import com.expense.expensemanagement.repository.UserRepository;
+import com.expense.expensemanagement.security.RefreshTokenGrant;
+import com.expense.expensemanagement.security.UserChangeTracker;
+import com.expense.expensemanagement.security.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues and rotates opaque refresh tokens. Only a SHA-256 hash of each token is stored.
+ * Every refresh consumes the presented token and issues a successor in the same family;
+ * presenting an already consumed token revokes the whole family.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserChangeTracker userChangeTracker;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Duration tokenLifetime;
+    private final TransactionTemplate revocationTransaction;
+
+    // Unconsumed grants by token hash, so a refresh does not need to re-read a user who has not changed
+    private final Cache<String, RefreshTokenGrant> hotIndex;
+
+    @Autowired
+    public RefreshTokenService(@Value("${auth.refresh-token.lifetime:30d}") Duration tokenLifetime,
+                               @Value("${jwt.expiration}") long jwtExpirationInMs,
+                               @Value("${auth.refresh-token.hot-index-size:100000}") long hotIndexSize,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this(tokenLifetime, jwtExpirationInMs, hotIndexSize, transactionManager, meterRegistry, Ticker.systemTicker());
+    }
+
+    RefreshTokenService(Duration tokenLifetime, long jwtExpirationInMs, long hotIndexSize,
+                        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, Ticker ticker) {
+        this.tokenLifetime = tokenLifetime;
+        // Revocations must survive the rollback of the request that detected the reuse
+        this.revocationTransaction = new TransactionTemplate(transactionManager);
+        this.revocationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // UserChangeTracker forgets a change one JWT lifetime after it, so a grant cached for longer
+        // could outlive the record of a change made after it was cached and pass isCurrent unchanged
+        Duration cachedFor = Duration.ofMillis(jwtExpirationInMs);
+        this.hotIndex = Caffeine.newBuilder()
+                .maximumSize(hotIndexSize)
+                .expireAfterWrite(cachedFor.compareTo(tokenLifetime) < 0 ? cachedFor : tokenLifetime)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, hotIndex, "refreshTokenGrants");
+    }
+
+    public String issueToken(User user) {
+        return issueToken(user, UUID.randomUUID().toString(), null);
+    }
+
+    /**
+     * Consumes the presented token and returns the grant it carried together with its successor.
+     */
+    public RotatedRefreshToken rotate(String rawToken) {
+        String tokenHash = hash(rawToken);
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshTokenGrant grant = hotIndex.getIfPresent(tokenHash);
+        // A cached grant may hold a role or status changed since, possibly on another node
+        if (grant == null || !userChangeTracker.isCurrent(grant.getUserId(), grant.getTokenVersion())) {
+            grant = refreshTokenRepository.findActiveGrant(tokenHash).orElse(null);
+        }
+        if (grant == null) {
+            refreshTokenRepository.findFamilyIdByTokenHash(tokenHash).ifPresent(this::revokeReusedFamily);
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        hotIndex.invalidate(tokenHash);
+        if (grant.isExpired(now)) {
+            throw new RuntimeException("Refresh token expired");
+        }
+        if (!grant.isUserActive()) {
+            throw new RuntimeException("User account is inactive");
+        }
+
+        // The conditional update is what makes rotation safe across concurrent requests and nodes
+        if (refreshTokenRepository.markUsed(tokenHash, now) == 0) {
+            revokeReusedFamily(grant.getFamilyId());
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        String successor = issueToken(userRepository.getReferenceById(grant.getUserId()), grant.getFamilyId(), grant);
+        return new RotatedRefreshToken(grant, successor);
+    }
+
+    public void revokeFamily(String rawToken) {
+        refreshTokenRepository.findFamilyIdByTokenHash(hash(rawToken)).ifPresent(familyId -> {
+            refreshTokenRepository.revokeFamily(familyId);
+            evictFamily(familyId);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        hotIndex.asMap().values().removeIf(grant -> grant.getUserId().equals(event.getUserId()));
+    }
+
+    @Scheduled(cron = "${auth.refresh-token.cleanup-cron:0 30 3 * * *}")
+    public void deleteExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private String issueToken(User user, String familyId, RefreshTokenGrant previous) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String tokenHash = hash(rawToken);
+        LocalDateTime expiresAt = LocalDateTime.now().plus(tokenLifetime);
+
+        refreshTokenRepository.save(new RefreshToken(tokenHash, familyId, expiresAt, user));
+        hotIndex.put(tokenHash, previous != null
+                ? previous.withToken(tokenHash, expiresAt)
+                : new RefreshTokenGrant(tokenHash, familyId, expiresAt, user.getId(), user.getUsername(),
+                        user.getEmail(), user.getFirstName(), user.getLastName(), user.getIsActive(),
+                        user.getRole().getRoleType(), user.getCompany().getId(), user.getCompany().getName(),
+                        user.getTokenVersion()));
+        return rawToken;
+    }
+
+    private void revokeReusedFamily(String familyId) {
+        logger.warn("Refresh token reuse detected, revoking token family {}", familyId);
+        revocationTransaction.executeWithoutResult(status -> refreshTokenRepository.revokeFamily(familyId));
+        evictFamily(familyId);
+    }
+
+    private void evictFamily(String familyId) {
+        hotIndex.asMap().values().removeIf(grant -> grant.getFamilyId().equals(familyId));
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static class RotatedRefreshToken {
+        private final RefreshTokenGrant grant;
+        private final String refreshToken;
+
+        public RotatedRefreshToken(RefreshTokenGrant grant, String refreshToken) {
+            this.grant = grant;
+            this.refreshToken = refreshToken;
+        }
+
+        public RefreshTokenGrant getGrant() {
+            return grant;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.repository.UserHierarchyRepository;
+import com.expense.expensemanagement.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the user_hierarchy_paths closure table in step with users.manager_id, so everyone under a
+ * manager at any depth can be found with a single indexed lookup.
+ */
+@Service
+@Transactional
+public class UserHierarchyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserHierarchyService.class);
+
+    @Autowired
+    private UserHierarchyRepository userHierarchyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public void addUser(Long userId, Long managerId) {
+        userHierarchyRepository.insertSelfPath(userId);
+        if (managerId != null) {
+            userHierarchyRepository.insertPathsBelow(managerId, userId);
+        }
+    }
+
+    /**
+     * Must be called before users.manager_id is changed, so a cycle is rejected without side effects.
+     */
+    public void moveUser(Long userId, Long managerId) {
+        if (managerId != null && userHierarchyRepository.existsByAncestorIdAndDescendantId(userId, managerId)) {
+            throw new RuntimeException("A user cannot report to themselves or to one of their reports");
+        }
+
+        userHierarchyRepository.deletePathsIntoSubtree(userId);
+        if (managerId != null) {
+            userHierarchyRepository.insertPathsIntoSubtree(managerId, userId);
+        }
+    }
+
+    /**
+     * Fills the table from users.manager_id when it is empty, e.g. on the first start after upgrading.
+     */
+    public void rebuildIfEmpty() {
+        if (userHierarchyRepository.count() > 0) {
+            return;
+        }
+
+        Map<Long, Long> managerByUser = new HashMap<>();
+        for (Object[] row : userRepository.findAllManagerLinks()) {
+            managerByUser.put((Long) row[0], (Long) row[1]);
+        }
+        if (managerByUser.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> paths = new ArrayList<>();
+        for (Long userId : managerByUser.keySet()) {
+            int depth = 0;
+            Long ancestorId = userId;
+            // The depth bound stops a corrupt manager_id cycle from looping forever
+            while (ancestorId != null && depth <= managerByUser.size()) {
+                paths.add(new Object[] {ancestorId, userId, depth++});
+                ancestorId = managerByUser.get(ancestorId);
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO user_hierarchy_paths (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)", paths);
+        logger.info("Built user hierarchy with {} paths for {} users", paths.size(), managerByUser.size());
+    }
+}
@@ -3,7 +3,10 @@ package com.expense.expensemanagement.service;
 import com.expense.expensemanagement.dto.*;
 import com.expense.expensemanagement.model.*;
 import com.expense.expensemanagement.repository.*;
+import com.expense.expensemanagement.security.UserChangedEvent;
+import com.expense.expensemanagement.security.UserCreatedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -30,6 +33,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserHierarchyService userHierarchyService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public UserDto getCurrentUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -110,6 +119,8 @@ public class UserService {
         }
 
         user = userRepository.save(user);
+        userHierarchyService.addUser(user.getId(), createUserRequest.getManagerId());
+        eventPublisher.publishEvent(new UserCreatedEvent(user.getUsername(), user.getEmail()));
         return convertToDto(user);
     }
 
@@ -122,7 +133,7 @@ public class UserService {
         user.setPhone(userDto.getPhone());
         user.setIsActive(userDto.getIsActive());
 
-        user = userRepository.save(user);
+        user = saveChanged(user);
         return convertToDto(user);
     }
 
@@ -135,7 +146,7 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("Role not found"));
 
         user.setRole(role);
-        user = userRepository.save(user);
+        user = saveChanged(user);
         return convertToDto(user);
     }
 
@@ -146,12 +157,14 @@ public class UserService {
         if (managerId != null) {
             User manager = userRepository.findById(managerId)
                     .orElseThrow(() -> new RuntimeException("Manager not found"));
+            userHierarchyService.moveUser(userId, managerId);
             user.setManager(manager);
         } else {
+            userHierarchyService.moveUser(userId, null);
             user.setManager(null);
         }
 
-        user = userRepository.save(user);
+        user = saveChanged(user);
         return convertToDto(user);
     }
 
@@ -160,10 +173,18 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         user.setIsActive(isActive);
-        user = userRepository.save(user);
+        user = saveChanged(user);
         return convertToDto(user);
     }
 
+    // Tokens issued before this change stop being trusted on their claims, on every node
+    private User saveChanged(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        user = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getTokenVersion()));
+        return user;
+    }
+
     private UserDto convertToDto(User user) {
         UserDto dto = new UserDto(
                 user.getId(),
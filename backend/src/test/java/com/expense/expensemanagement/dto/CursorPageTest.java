@@ -0,0 +1,42 @@
+package com.expense.expensemanagement.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursorPageTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 3, 5, 10, 15, 30);
+
+    @Test
+    void extraRowSignalsNextPageAndIsDropped() {
+        CursorPage<Long> page = CursorPage.of(List.of(5L, 4L, 3L), 2, id -> new PageCursor(CREATED_AT, id));
+
+        assertThat(page.getContent()).containsExactly(5L, 4L);
+        assertThat(page.getHasNext()).isTrue();
+        PageCursor next = PageCursor.decode(page.getNextCursor());
+        assertThat(next.getId()).isEqualTo(4L);
+        assertThat(next.getCreatedAt()).isEqualTo(CREATED_AT);
+    }
+
+    @Test
+    void fullLastPageHasNoCursor() {
+        CursorPage<Long> page = CursorPage.of(List.of(5L, 4L), 2, id -> new PageCursor(CREATED_AT, id));
+
+        assertThat(page.getContent()).containsExactly(5L, 4L);
+        assertThat(page.getHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void emptyPage() {
+        CursorPage<Long> page = CursorPage.of(List.of(), 20, id -> new PageCursor(CREATED_AT, id));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+}
@@ -0,0 +1,67 @@
+package com.expense.expensemanagement.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void roundTripKeepsNanosecondsAndId() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 5, 10, 15, 30, 123456789);
+
+        PageCursor decoded = PageCursor.decode(new PageCursor(createdAt, 42L).encode());
+
+        assertThat(decoded.getCreatedAt()).isEqualTo(createdAt);
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void roundTripOnWholeMinute() {
+        // LocalDateTime.toString leaves the seconds out here
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 5, 10, 15);
+
+        assertThat(PageCursor.decode(new PageCursor(createdAt, 7L).encode()).getCreatedAt()).isEqualTo(createdAt);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafeWithoutPadding() {
+        String token = new PageCursor(LocalDateTime.of(2024, 3, 5, 10, 15, 30, 1000), Long.MAX_VALUE).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsTokenThatIsNotBase64() {
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor!"))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void rejectsTokenWithoutSeparator() {
+        assertThatThrownBy(() -> PageCursor.decode(token("2024-03-05T10:15:30")))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void rejectsMalformedTimestamp() {
+        assertThatThrownBy(() -> PageCursor.decode(token("yesterday|5")))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void rejectsMalformedId() {
+        assertThatThrownBy(() -> PageCursor.decode(token("2024-03-05T10:15:30|five")))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String token(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,223 @@
+package com.expense.expensemanagement.repository;
+
+import com.expense.expensemanagement.model.Expense;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One search page, and the count Spring Data runs beside it, for each scope and filter
+ * combination ExpenseService.searchExpenses builds, in the SQL Hibernate renders for it. The
+ * table holds {@code rows} expenses across 20 companies of 50 employees each, spread over three
+ * years, with either the indexes declared on {@link Expense} or none beyond the primary key.
+ * <p>
+ * With the declared indexes, setup checks H2's plan for every combination and fails, quoting
+ * the plan, unless it starts on the index expected for it, so a change to the predicates or the
+ * index list that loses one shows up here. The database is a file in a temporary directory, so a multi-million
+ * row table does not have to fit in the benchmark's heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseSearchIndexBenchmark {
+
+    private static final String COLUMNS = "e.id, e.amount, e.category, e.currency, e.description, e.employee_id, " +
+            "e.expense_date, e.status";
+    private static final String ORDER = " order by e.expense_date desc, e.id desc offset 0 rows fetch first 20 rows only";
+    private static final String IN_QUARTER = " and e.expense_date>=? and e.expense_date<=?";
+
+    private static final long COMPANY = 1;
+    private static final long EMPLOYEE = 21;
+    private static final long MANAGER = 1;
+    private static final LocalDate QUARTER_START = LocalDate.of(2026, 7, 1);
+    private static final LocalDate QUARTER_END = LocalDate.of(2026, 9, 30);
+
+    @Param({"2000000"})
+    private int rows;
+
+    @Param({"declared", "none"})
+    private String indexes;
+
+    private Path directory;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        directory = Files.createTempDirectory("expense-search");
+        // Result reuse off, or H2 answers every repeat of a statement from its last result
+        connection = DriverManager.getConnection("jdbc:h2:" + directory.resolve("search") + ";OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE expenses (id BIGINT PRIMARY KEY, company_id BIGINT NOT NULL, " +
+                    "employee_id BIGINT NOT NULL, amount DECIMAL(19, 2) NOT NULL, currency VARCHAR(3) NOT NULL, " +
+                    "category VARCHAR(255) NOT NULL, status VARCHAR(255) NOT NULL, expense_date DATE NOT NULL, " +
+                    "created_at TIMESTAMP NOT NULL, description VARCHAR(255) NOT NULL)");
+
+            // Employee n belongs to company (n - 1) % 20 + 1; one expense in 50 mentions a taxi
+            ddl.execute("INSERT INTO expenses SELECT X, MOD(MOD(X, 1000), 20) + 1, MOD(X, 1000) + 1, " +
+                    "MOD(X * 37, 50000) / 100.0 + 1, 'USD', " +
+                    "ARRAY['TRAVEL', 'MEALS', 'ACCOMMODATION', 'TRANSPORTATION', 'OFFICE_SUPPLIES', " +
+                    "'ENTERTAINMENT', 'TRAINING', 'SOFTWARE', 'HARDWARE', 'OTHER'][MOD(X / 3, 10) + 1], " +
+                    "ARRAY['DRAFT', 'SUBMITTED', 'PENDING', 'APPROVED', 'REJECTED', 'PAID'][MOD(X / 7, 6) + 1], " +
+                    "DATEADD(DAY, MOD(X * 7919, 1095), DATE '2024-01-01'), " +
+                    "DATEADD(DAY, MOD(X * 7919, 1095), TIMESTAMP '2024-01-01 09:00:00'), " +
+                    "CASE WHEN MOD(X, 50) = 0 THEN 'Airport taxi ' ELSE 'Receipt ' END || X " +
+                    "FROM SYSTEM_RANGE(1, " + rows + ")");
+
+            // The manager heads ten employees of the same company, themselves included
+            ddl.execute("CREATE TABLE user_hierarchy_paths (ancestor_id BIGINT NOT NULL, descendant_id BIGINT NOT NULL, " +
+                    "depth INT NOT NULL, PRIMARY KEY (ancestor_id, descendant_id))");
+            ddl.execute("INSERT INTO user_hierarchy_paths SELECT " + MANAGER + ", MOD(X * 20, 1000) + " + MANAGER +
+                    ", CASE WHEN X = 0 THEN 0 ELSE 1 END FROM SYSTEM_RANGE(0, 9)");
+
+            if ("declared".equals(indexes)) {
+                for (Index index : Expense.class.getAnnotation(Table.class).indexes()) {
+                    ddl.execute("CREATE INDEX " + index.name() + " ON expenses (" + index.columnList() + ")");
+                }
+            }
+            ddl.execute("ANALYZE");
+        }
+
+        if ("declared".equals(indexes)) {
+            expectIndex("company", companyScope(), "idx_expenses_company_date", COMPANY);
+            expectIndex("company + status", companyScope() + " and e.status=?", "idx_expenses_company_status_date",
+                    COMPANY, "SUBMITTED");
+            expectIndex("company + category", companyScope() + " and e.category=?", "idx_expenses_company_category_date",
+                    COMPANY, "TRAVEL");
+            expectIndex("team", teamScope(), "idx_expenses_company_date", COMPANY, MANAGER);
+            expectIndex("own", ownScope(), "idx_expenses_employee_date", COMPANY, EMPLOYEE);
+            expectIndex("company + description", descriptionSearch(), "idx_expenses_company_date", COMPANY, "%taxi%");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException, IOException {
+        connection.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long company() throws SQLException {
+        return search(companyScope(), COMPANY);
+    }
+
+    @Benchmark
+    public long companyAndStatus() throws SQLException {
+        return search(companyScope() + " and e.status=?", COMPANY, "SUBMITTED");
+    }
+
+    @Benchmark
+    public long companyAndCategory() throws SQLException {
+        return search(companyScope() + " and e.category=?", COMPANY, "TRAVEL");
+    }
+
+    @Benchmark
+    public long team() throws SQLException {
+        return search(teamScope(), COMPANY, MANAGER);
+    }
+
+    @Benchmark
+    public long own() throws SQLException {
+        return search(ownScope(), COMPANY, EMPLOYEE);
+    }
+
+    @Benchmark
+    public long companyAndDescription() throws SQLException {
+        return search(descriptionSearch(), COMPANY, "%taxi%");
+    }
+
+    private static String companyScope() {
+        return "from expenses e where e.company_id=?";
+    }
+
+    // ExpenseSpecifications.inHierarchyOf joins the closure table as a second root
+    private static String teamScope() {
+        return "from expenses e, user_hierarchy_paths h where e.company_id=? and h.ancestor_id=? " +
+                "and h.descendant_id=e.employee_id";
+    }
+
+    private static String ownScope() {
+        return "from expenses e where e.company_id=? and e.employee_id=?";
+    }
+
+    private static String descriptionSearch() {
+        return "from expenses e where e.company_id=? and lower(e.description) like ? escape '\\'";
+    }
+
+    // The page and its count, both over the last quarter of the data
+    private long search(String scope, Object... parameters) throws SQLException {
+        long total = 0;
+        try (PreparedStatement page = prepare("select " + COLUMNS + " " + scope + IN_QUARTER + ORDER, parameters);
+             ResultSet results = page.executeQuery()) {
+            while (results.next()) {
+                total += results.getLong(1);
+            }
+        }
+        try (PreparedStatement count = prepare("select count(e.id) " + scope + IN_QUARTER, parameters);
+             ResultSet results = count.executeQuery()) {
+            results.next();
+            total += results.getLong(1);
+        }
+        return total;
+    }
+
+    private void expectIndex(String combination, String scope, String index, Object... parameters) throws SQLException {
+        String plan;
+        try (PreparedStatement explain = prepare("explain select " + COLUMNS + " " + scope + IN_QUARTER + ORDER, parameters);
+             ResultSet results = explain.executeQuery()) {
+            results.next();
+            plan = results.getString(1);
+        }
+        // The index must be entered on its leading column, not just scanned in order
+        String marker = "/* PUBLIC." + index.toUpperCase() + ":";
+        int start = plan.indexOf(marker);
+        String leading = index.startsWith("idx_expenses_company") ? "COMPANY_ID" : "EMPLOYEE_ID";
+        String conditions = start < 0 ? "" : plan.substring(start, plan.indexOf("*/", start));
+        if (!conditions.contains(leading + " = ") && !conditions.contains(leading + " IN(")) {
+            throw new IllegalStateException("Search on " + combination + " does not seek " + index + ":\n" + plan);
+        }
+    }
+
+    private PreparedStatement prepare(String sql, Object... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            statement.setObject(i + 1, parameters[i]);
+        }
+        statement.setDate(parameters.length + 1, Date.valueOf(QUARTER_START));
+        statement.setDate(parameters.length + 2, Date.valueOf(QUARTER_END));
+        return statement;
+    }
+}
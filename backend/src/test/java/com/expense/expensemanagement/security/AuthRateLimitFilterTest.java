@@ -0,0 +1,76 @@
+package com.expense.expensemanagement.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthRateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private AuthRateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        AuthRateLimiter limiter = new AuthRateLimiter(true, 2, Duration.ofMinutes(1), 5, Duration.ofMinutes(1),
+                1000, new SimpleMeterRegistry());
+        filter = new AuthRateLimitFilter();
+        ReflectionTestUtils.setField(filter, "authRateLimiter", limiter);
+        ReflectionTestUtils.setField(filter, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void rejectsAClientPastItsBurstWithAnApiResponse() throws Exception {
+        assertThat(signin("203.0.113.7").getStatus()).isEqualTo(200);
+        assertThat(signin("203.0.113.7").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = signin("203.0.113.7");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+        JsonNode body = objectMapper.readTree(rejected.getContentAsByteArray());
+        assertThat(body.get("success").asBoolean()).isFalse();
+        assertThat(body.get("message").asText()).isEqualTo(AuthRateLimiter.TOO_MANY_ATTEMPTS);
+    }
+
+    @Test
+    void clientsAreLimitedSeparately() throws Exception {
+        signin("203.0.113.7");
+        signin("203.0.113.7");
+
+        assertThat(signin("203.0.113.7").getStatus()).isEqualTo(429);
+        assertThat(signin("198.51.100.4").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void otherPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/api/expenses/my");
+            request.setServletPath("/api/expenses/my");
+            request.setRemoteAddr("203.0.113.7");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse signin(String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/api/auth/signin");
+        request.setServletPath("/api/auth/signin");
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,36 @@
+package com.expense.expensemanagement.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void loginIdentifiersShareABucketWhateverTheirCase() {
+        AuthRateLimiter limiter = limiter(true);
+
+        assertThat(limiter.tryAcquireForLogin("Ada@Example.com")).isZero();
+        assertThat(limiter.tryAcquireForLogin(" ada@example.com ")).isPositive();
+        assertThat(meterRegistry.get("auth.rate_limit.rejected").tag("key", "login").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        AuthRateLimiter limiter = limiter(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquireForClient("203.0.113.7")).isZero();
+            assertThat(limiter.tryAcquireForLogin("ada")).isZero();
+        }
+    }
+
+    private AuthRateLimiter limiter(boolean enabled) {
+        return new AuthRateLimiter(enabled, 1, Duration.ofMinutes(1), 1, Duration.ofMinutes(1), 1000, meterRegistry);
+    }
+}
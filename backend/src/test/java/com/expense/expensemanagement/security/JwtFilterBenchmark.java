@@ -0,0 +1,192 @@
+package com.expense.expensemanagement.security;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.expense.expensemanagement.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of JwtAuthenticationFilter on the requests the change affected, against what they cost
+ * before it.
+ * <ul>
+ * <li>A public route carrying a bearer token (a client refreshing with its old access token):
+ * skipped by shouldNotFilter now, verified and authenticated before.</li>
+ * <li>A rejected token: counted for the periodic summary now, an ERROR line per request before.
+ * The line is written through a real encoder to a discarding stream, so formatting is measured
+ * and disk or console I/O is not.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final FilterChain CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter filterWithoutSkip;
+    private TokenFailureLog tokenFailureLog;
+    private Logger legacyLogger;
+    private MockHttpServletRequest publicRequest;
+    private MockHttpServletRequest expiredTokenRequest;
+    private RuntimeException lookupFailure;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(ch.qos.logback.classic.Level.INFO);
+        legacyLogger = discardingLogger(context);
+
+        tokenFailureLog = new TokenFailureLog(new SimpleMeterRegistry());
+        JwtTokenProvider tokenProvider = tokenProvider(3600000);
+        filter = filter(tokenProvider);
+        filterWithoutSkip = new JwtAuthenticationFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return false;
+            }
+        };
+        wire(filterWithoutSkip, tokenProvider);
+
+        String token = tokenProvider.generateTokenFromUserId(7L, "ada", "ada@example.com", "EMPLOYEE", 1L, 0L);
+        publicRequest = request("/api/auth/refresh", token);
+        String expired = tokenProvider(-60000).generateTokenFromUserId(7L, "ada", "ada@example.com", "EMPLOYEE", 1L, 0L);
+        expiredTokenRequest = request("/api/expenses/my", expired);
+        lookupFailure = new IllegalStateException("User not found with id : 7");
+    }
+
+    @Benchmark
+    public Object publicRouteSkipped() throws Exception {
+        return run(filter, publicRequest);
+    }
+
+    @Benchmark
+    public Object publicRouteFiltered() throws Exception {
+        return run(filterWithoutSkip, publicRequest);
+    }
+
+    @Benchmark
+    public Object expiredTokenSummarized() throws Exception {
+        return run(filter, expiredTokenRequest);
+    }
+
+    @Benchmark
+    public Object expiredTokenLoggedEach() throws Exception {
+        Object result = run(filter, expiredTokenRequest);
+        legacyLogger.error("Expired JWT token");
+        return result;
+    }
+
+    @Benchmark
+    public void lookupFailureSummarized() {
+        tokenFailureLog.record(TokenFailureLog.Reason.USER_LOOKUP, lookupFailure);
+    }
+
+    @Benchmark
+    public void lookupFailureLoggedEach() {
+        legacyLogger.error("Could not set user authentication in security context", lookupFailure);
+    }
+
+    private static Object run(JwtAuthenticationFilter filter, MockHttpServletRequest request) throws Exception {
+        // OncePerRequestFilter marks the request as filtered; clear it so every call does the work
+        request.removeAttribute(JwtAuthenticationFilter.class.getName() + ".FILTERED");
+        request.removeAttribute(filter.getClass().getName() + ".FILTERED");
+        filter.doFilter(request, new MockHttpServletResponse(), CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    private JwtAuthenticationFilter filter(JwtTokenProvider tokenProvider) {
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter();
+        wire(jwtFilter, tokenProvider);
+        return jwtFilter;
+    }
+
+    private void wire(JwtAuthenticationFilter jwtFilter, JwtTokenProvider tokenProvider) {
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[] {RevokedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findUnexpiredTokenIds", "findTokenIdsRevokedSince" -> Collections.emptyList();
+                    case "existsByTokenId" -> false;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        TokenRevocationService revocations = new TokenRevocationService(1000, 0.001, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocations, "revokedTokenRepository", repository);
+        revocations.rebuild();
+
+        ReflectionTestUtils.setField(jwtFilter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(jwtFilter, "userChangeTracker", new UserChangeTracker(3600000, Duration.ofSeconds(10)));
+        ReflectionTestUtils.setField(jwtFilter, "tokenRevocationService", revocations);
+        ReflectionTestUtils.setField(jwtFilter, "tokenFailureLog", tokenFailureLog);
+        ReflectionTestUtils.setField(jwtFilter, "statelessAuthentication", true);
+    }
+
+    private JwtTokenProvider tokenProvider(int expirationInMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", expirationInMs);
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", 10000);
+        ReflectionTestUtils.setField(provider, "tokenFailureLog", tokenFailureLog);
+        provider.init();
+        return provider;
+    }
+
+    private static MockHttpServletRequest request(String servletPath, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api" + servletPath);
+        request.setContextPath("/api");
+        request.setServletPath(servletPath);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    // The application's console pattern, written to a stream that drops everything
+    private static Logger discardingLogger(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%t] %-40.40logger{39} : %m%n%wEx");
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger logger = context.getLogger("benchmark.legacy");
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        return logger;
+    }
+}
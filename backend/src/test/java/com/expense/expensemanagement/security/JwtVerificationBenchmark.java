@@ -0,0 +1,88 @@
+package com.expense.expensemanagement.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of turning a bearer token into its claims. legacy is what the filter did
+ * before: validateToken then getUserIdFromToken, each deriving the HMAC key and building a new
+ * parser. cachedParser is verifyToken with the verified-token cache off, one parse with the parser
+ * built at startup; verifiedCache is verifyToken on a token seen before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final int TOKENS = 1024;
+
+    private JwtTokenProvider uncachedProvider;
+    private JwtTokenProvider cachedProvider;
+    private String[] tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        uncachedProvider = provider(0);
+        cachedProvider = provider(TOKENS * 2);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = uncachedProvider.generateTokenFromUserId((long) i, "user" + i, "user" + i + "@example.com",
+                    "EMPLOYEE", 1L, 0L);
+            cachedProvider.verifyToken(tokens[i]);
+        }
+    }
+
+    @Benchmark
+    public Long legacy() {
+        String token = nextToken();
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody();
+        return Long.parseLong(claims.getSubject());
+    }
+
+    @Benchmark
+    public Long cachedParser() {
+        return uncachedProvider.verifyToken(nextToken()).map(VerifiedToken::getUserId).orElse(null);
+    }
+
+    @Benchmark
+    public Long verifiedCache() {
+        return cachedProvider.verifyToken(nextToken()).map(VerifiedToken::getUserId).orElse(null);
+    }
+
+    private String nextToken() {
+        return tokens[next++ & (TOKENS - 1)];
+    }
+
+    private static JwtTokenProvider provider(int verifiedCacheSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 3600000);
+        ReflectionTestUtils.setField(provider, "verifiedCacheSize", verifiedCacheSize);
+        ReflectionTestUtils.setField(provider, "tokenFailureLog", new TokenFailureLog(new SimpleMeterRegistry()));
+        provider.init();
+        return provider;
+    }
+}
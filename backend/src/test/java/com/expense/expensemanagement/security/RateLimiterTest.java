@@ -0,0 +1,73 @@
+package com.expense.expensemanagement.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    @Test
+    void allowsABurstOfCapacityThenRejects() {
+        RateLimiter limiter = new RateLimiter(5, Duration.ofMinutes(1), 100);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+        }
+        long wait = limiter.tryAcquire("10.0.0.1");
+
+        // One token comes back every 12 seconds
+        assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(12));
+        assertThat(wait).isGreaterThan(TimeUnit.SECONDS.toNanos(11));
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofMinutes(1), 100);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedAttemptsDoNotUseUpTokens() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(2, Duration.ofMillis(200), 100);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("a");
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("a")).isPositive();
+        }
+
+        Thread.sleep(120);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+    }
+
+    @Test
+    void refillsToFullCapacityAfterTheRefillPeriod() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(3, Duration.ofMillis(150), 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+        assertThat(limiter.tryAcquire("a")).isPositive();
+
+        Thread.sleep(200);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertThat(RateLimiter.toRetryAfterSeconds(1)).isEqualTo(1);
+        assertThat(RateLimiter.toRetryAfterSeconds(TimeUnit.SECONDS.toNanos(1))).isEqualTo(1);
+        assertThat(RateLimiter.toRetryAfterSeconds(TimeUnit.SECONDS.toNanos(1) + 1)).isEqualTo(2);
+        assertThat(RateLimiter.toRetryAfterSeconds(TimeUnit.MILLISECONDS.toNanos(11_500))).isEqualTo(12);
+    }
+}
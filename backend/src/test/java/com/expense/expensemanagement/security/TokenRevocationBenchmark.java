@@ -0,0 +1,109 @@
+package com.expense.expensemanagement.security;
+
+import com.expense.expensemanagement.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the revocation check in JwtAuthenticationFilter, with the filter loaded to
+ * its expected size. The miss path is what almost every request takes; verifyAndCheck adds the
+ * cached token verification in front of it, as the filter does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenRevocationBenchmark {
+
+    private static final int PROBES = 4096;
+
+    @Param({"100000"})
+    private int revokedTokens;
+
+    private TokenRevocationService revocations;
+    private JwtTokenProvider tokenProvider;
+    private String[] liveTokenIds;
+    private String[] revokedTokenIds;
+    private String[] liveTokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> revoked = new ArrayList<>(revokedTokens);
+        for (int i = 0; i < revokedTokens; i++) {
+            revoked.add(UUID.randomUUID().toString());
+        }
+        Set<String> revokedSet = new HashSet<>(revoked);
+
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[] {RevokedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findUnexpiredTokenIds" -> revoked;
+                    case "findTokenIdsRevokedSince" -> Collections.emptyList();
+                    case "existsByTokenId" -> revokedSet.contains((String) args[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        revocations = new TokenRevocationService(revokedTokens, 0.001, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(revocations, "revokedTokenRepository", repository);
+        revocations.rebuild();
+
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 3600000);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheSize", 10000);
+        ReflectionTestUtils.setField(tokenProvider, "tokenFailureLog", new TokenFailureLog(new SimpleMeterRegistry()));
+        tokenProvider.init();
+
+        liveTokenIds = new String[PROBES];
+        revokedTokenIds = new String[PROBES];
+        liveTokens = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            liveTokenIds[i] = UUID.randomUUID().toString();
+            revokedTokenIds[i] = revoked.get(i);
+            liveTokens[i] = tokenProvider.generateTokenFromUserId((long) i, "user" + i, "user" + i + "@example.com", "EMPLOYEE", 1L, 0L);
+            tokenProvider.verifyToken(liveTokens[i]);
+        }
+    }
+
+    @Benchmark
+    public boolean liveToken() {
+        return revocations.isRevoked(liveTokenIds[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean revokedToken() {
+        return revocations.isRevoked(revokedTokenIds[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean verifyAndCheck() {
+        VerifiedToken token = tokenProvider.verifyToken(liveTokens[next++ & (PROBES - 1)]).orElseThrow();
+        return revocations.isRevoked(token.getTokenId());
+    }
+}
@@ -0,0 +1,70 @@
+package com.expense.expensemanagement.security;
+
+import com.expense.expensemanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserChangeTrackerTest {
+
+    private UserRepository userRepository;
+    private UserChangeTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        tracker = new UserChangeTracker(86400000L, Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(tracker, "userRepository", userRepository);
+    }
+
+    @Test
+    void unchangedUserTrustsAnyVersion() {
+        assertThat(tracker.isCurrent(1L, 0L)).isTrue();
+        assertThat(tracker.isCurrent(1L, null)).isTrue();
+    }
+
+    @Test
+    void localChangeInvalidatesOlderTokens() {
+        tracker.onUserChanged(new UserChangedEvent(1L, 3L));
+
+        assertThat(tracker.isCurrent(1L, 2L)).isFalse();
+        assertThat(tracker.isCurrent(1L, null)).isFalse();
+        assertThat(tracker.isCurrent(1L, 3L)).isTrue();
+        assertThat(tracker.isCurrent(2L, 0L)).isTrue();
+    }
+
+    @Test
+    void syncPicksUpChangesFromOtherNodes() {
+        when(userRepository.findTokenVersionsUpdatedSince(any()))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(List.<Object[]>of(new Object[] {5L, 1L}));
+        tracker.load();
+        assertThat(tracker.isCurrent(5L, 0L)).isTrue();
+
+        tracker.sync();
+
+        assertThat(tracker.isCurrent(5L, 0L)).isFalse();
+        assertThat(tracker.isCurrent(5L, 1L)).isTrue();
+    }
+
+    @Test
+    void staleSyncDoesNotUndoNewerLocalChange() {
+        tracker.onUserChanged(new UserChangedEvent(5L, 2L));
+        when(userRepository.findTokenVersionsUpdatedSince(any()))
+                .thenReturn(List.<Object[]>of(new Object[] {5L, 1L}));
+
+        tracker.sync();
+
+        assertThat(tracker.isCurrent(5L, 2L)).isTrue();
+        assertThat(tracker.isCurrent(5L, 1L)).isFalse();
+    }
+}
@@ -0,0 +1,88 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.dto.JwtAuthenticationResponse;
+import com.expense.expensemanagement.model.Company;
+import com.expense.expensemanagement.model.Role;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.repository.UserRepository;
+import com.expense.expensemanagement.security.JwtTokenProvider;
+import com.expense.expensemanagement.security.TokenRevocationService;
+import com.expense.expensemanagement.security.VerifiedToken;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtTokenProvider tokenProvider;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private AuthService authService;
+
+    @Test
+    void refreshTokenRejectsRevokedToken() {
+        when(tokenProvider.verifyToken(TOKEN)).thenReturn(Optional.of(verifiedToken()));
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
+
+        assertThatThrownBy(() -> authService.refreshToken(TOKEN))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Invalid token");
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void refreshTokenIssuesNewTokenWhenNotRevoked() {
+        when(tokenProvider.verifyToken(TOKEN)).thenReturn(Optional.of(verifiedToken()));
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(false);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user()));
+        when(tokenProvider.generateTokenFromUserId(anyLong(), anyString(), anyString(), anyString(), any(), any()))
+                .thenReturn("new-token");
+
+        JwtAuthenticationResponse response = authService.refreshToken(TOKEN);
+
+        assertThat(response.getAccessToken()).isEqualTo("new-token");
+    }
+
+    private static VerifiedToken verifiedToken() {
+        long now = System.currentTimeMillis();
+        return new VerifiedToken("jti-1", 7L, "jane", "jane@example.com", "EMPLOYEE", 3L, 0L, now, now + 60000);
+    }
+
+    private static User user() {
+        Company company = new Company();
+        company.setId(3L);
+        Role role = new Role();
+        role.setRoleType(Role.RoleType.EMPLOYEE);
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("jane");
+        user.setEmail("jane@example.com");
+        user.setFirstName("Jane");
+        user.setLastName("Doe");
+        user.setRole(role);
+        user.setCompany(company);
+        return user;
+    }
+}
@@ -0,0 +1,183 @@
+package com.expense.expensemanagement.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving a subtree in user_hierarchy_paths, as UserHierarchyService.moveUser does it, against
+ * the version that read both sides of the move into Java and wrote the product back as batched
+ * inserts. Each invocation moves the subtree to the other branch and back, so the table is the
+ * same at the start of every call.
+ * <p>
+ * The tree is a chain of {@code depth} managers on each of two branches, with the subtree hung
+ * off the bottom of one of them: {@code subtreeSize} reports under a single root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClosureTableMoveBenchmark {
+
+    @Param({"10", "1000"})
+    private int subtreeSize;
+
+    @Param({"5"})
+    private int depth;
+
+    private Connection connection;
+    private long leftManager;
+    private long rightManager;
+    private long subtreeRoot;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:closure;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS user_hierarchy_paths");
+            ddl.execute("CREATE TABLE user_hierarchy_paths (ancestor_id BIGINT NOT NULL, descendant_id BIGINT NOT NULL, " +
+                    "depth INT NOT NULL, PRIMARY KEY (ancestor_id, descendant_id))");
+            ddl.execute("CREATE INDEX idx_user_hierarchy_paths_descendant ON user_hierarchy_paths (descendant_id, ancestor_id)");
+        }
+
+        long nextId = 1;
+        long top = nextId++;
+        addUser(top, null);
+        leftManager = top;
+        rightManager = top;
+        for (int i = 0; i < depth; i++) {
+            long left = nextId++;
+            addUser(left, leftManager);
+            leftManager = left;
+            long right = nextId++;
+            addUser(right, rightManager);
+            rightManager = right;
+        }
+        subtreeRoot = nextId++;
+        addUser(subtreeRoot, leftManager);
+        for (int i = 1; i < subtreeSize; i++) {
+            addUser(nextId++, subtreeRoot);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void insertSelect() throws SQLException {
+        moveWithInsertSelect(rightManager);
+        moveWithInsertSelect(leftManager);
+    }
+
+    @Benchmark
+    public void loopAndBatch() throws SQLException {
+        moveWithLoop(rightManager);
+        moveWithLoop(leftManager);
+    }
+
+    private void moveWithInsertSelect(long managerId) throws SQLException {
+        deletePathsIntoSubtree();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO user_hierarchy_paths (ancestor_id, descendant_id, depth) " +
+                "SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1 " +
+                "FROM user_hierarchy_paths above CROSS JOIN user_hierarchy_paths below " +
+                "WHERE above.descendant_id = ? AND below.ancestor_id = ?")) {
+            insert.setLong(1, managerId);
+            insert.setLong(2, subtreeRoot);
+            insert.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    private void moveWithLoop(long managerId) throws SQLException {
+        List<long[]> below = paths("SELECT descendant_id, depth FROM user_hierarchy_paths WHERE ancestor_id = ?", subtreeRoot);
+        deletePathsIntoSubtree();
+        List<long[]> above = paths("SELECT ancestor_id, depth FROM user_hierarchy_paths WHERE descendant_id = ?", managerId);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO user_hierarchy_paths (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)")) {
+            int pending = 0;
+            for (long[] ancestor : above) {
+                for (long[] member : below) {
+                    insert.setLong(1, ancestor[0]);
+                    insert.setLong(2, member[0]);
+                    insert.setLong(3, ancestor[1] + member[1] + 1);
+                    insert.addBatch();
+                    if (++pending % 50 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private void deletePathsIntoSubtree() throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM user_hierarchy_paths " +
+                "WHERE ancestor_id IN (SELECT ancestor_id FROM (SELECT ancestor_id FROM user_hierarchy_paths " +
+                "WHERE descendant_id = ? AND depth > 0) above) " +
+                "AND descendant_id IN (SELECT descendant_id FROM (SELECT descendant_id FROM user_hierarchy_paths " +
+                "WHERE ancestor_id = ?) below)")) {
+            delete.setLong(1, subtreeRoot);
+            delete.setLong(2, subtreeRoot);
+            delete.executeUpdate();
+        }
+    }
+
+    private void addUser(long userId, Long managerId) throws SQLException {
+        try (PreparedStatement self = connection.prepareStatement(
+                "INSERT INTO user_hierarchy_paths (ancestor_id, descendant_id, depth) VALUES (?, ?, 0)")) {
+            self.setLong(1, userId);
+            self.setLong(2, userId);
+            self.executeUpdate();
+        }
+        if (managerId != null) {
+            try (PreparedStatement below = connection.prepareStatement(
+                    "INSERT INTO user_hierarchy_paths (ancestor_id, descendant_id, depth) " +
+                    "SELECT ancestor_id, ?, depth + 1 FROM user_hierarchy_paths WHERE descendant_id = ?")) {
+                below.setLong(1, userId);
+                below.setLong(2, managerId);
+                below.executeUpdate();
+            }
+        }
+    }
+
+    private List<long[]> paths(String sql, long parameter) throws SQLException {
+        List<long[]> values = new ArrayList<>();
+        try (PreparedStatement query = connection.prepareStatement(sql)) {
+            query.setLong(1, parameter);
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    values.add(new long[] {rows.getLong(1), rows.getLong(2)});
+                }
+            }
+        }
+        return values;
+    }
+}
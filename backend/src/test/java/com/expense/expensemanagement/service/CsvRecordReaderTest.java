@@ -0,0 +1,92 @@
+package com.expense.expensemanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void splitsRecordsOnLfAndCrLf() throws IOException {
+        CsvRecordReader reader = reader("date,amount\r\n2024-03-05,12.50\n2024-03-06,7\r\n");
+
+        assertThat(reader.next()).containsExactly("date", "amount");
+        assertThat(reader.next()).containsExactly("2024-03-05", "12.50");
+        assertThat(reader.next()).containsExactly("2024-03-06", "7");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void readsLastRecordWithoutTrailingLineBreak() throws IOException {
+        CsvRecordReader reader = reader("a,b\nc,d");
+
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.next()).containsExactly("c", "d");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        CsvRecordReader reader = reader(",middle,\n\"\",x\n");
+
+        assertThat(reader.next()).containsExactly("", "middle", "");
+        assertThat(reader.next()).containsExactly("", "x");
+    }
+
+    @Test
+    void quotedFieldsHoldCommasEscapedQuotesAndLineBreaks() throws IOException {
+        CsvRecordReader reader = reader("\"Lunch, client\",\"He said \"\"hi\"\"\",\"two\r\nlines\"\n");
+
+        assertThat(reader.next()).containsExactly("Lunch, client", "He said \"hi\"", "two\r\nlines");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertThat(reader("12\" screen,3\n").next()).containsExactly("12\" screen", "3");
+    }
+
+    @Test
+    void skipsBlankLinesBetweenRecords() throws IOException {
+        CsvRecordReader reader = reader("\n\r\na\n\n\nb\n\n");
+
+        assertThat(reader.next()).containsExactly("a");
+        assertThat(reader.next()).containsExactly("b");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void recordLineCountsBreaksInsideQuotesAndBlankLines() throws IOException {
+        CsvRecordReader reader = reader("header\n\"multi\nline\",x\n\nlast\n");
+
+        reader.next();
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        reader.next();
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        reader.next();
+        assertThat(reader.getRecordLine()).isEqualTo(5);
+    }
+
+    @Test
+    void unterminatedQuoteIsAnErrorNamingItsLine() throws IOException {
+        CsvRecordReader reader = reader("a,b\n\"never closed,c\nd\n");
+        reader.next();
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unterminated quoted field starting on line 2");
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertThat(reader("").next()).isNull();
+    }
+
+    private static CsvRecordReader reader(String csv) {
+        return new CsvRecordReader(new StringReader(csv));
+    }
+}
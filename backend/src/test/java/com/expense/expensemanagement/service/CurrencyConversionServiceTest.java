@@ -0,0 +1,99 @@
+package com.expense.expensemanagement.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class CurrencyConversionServiceTest {
+
+    private CurrencyConversionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CurrencyConversionService("USD", Duration.ofHours(1), Duration.ofHours(24), Duration.ofDays(30),
+                Duration.ofSeconds(3), 5, Duration.ofSeconds(30), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "exchangeRateHistoryService", mock(ExchangeRateHistoryService.class));
+        service.install(new RateSnapshot("USD", Instant.now(), Map.of(
+                "JPY", new BigDecimal("150"),
+                "KWD", new BigDecimal("0.307"),
+                "EUR", new BigDecimal("0.92"))));
+    }
+
+    @Test
+    void convertsLowValueCurrenciesWithTheUnroundedCrossRate() {
+        BigDecimal rate = service.getExchangeRate("JPY", "KWD");
+
+        // 0.307 / 150 = 0.00204666...; rounded to six decimals it would be 0.002047, 0.016% high
+        assertThat(service.applyRate(new BigDecimal("1000000"), rate)).isEqualByComparingTo("2046.67");
+        assertThat(service.recordedRate(rate)).isEqualByComparingTo("0.002047");
+    }
+
+    @Test
+    void crossRateKeepsSixteenSignificantDigits() {
+        BigDecimal rate = CurrencyConversionService.crossRate(
+                CurrencyConversionService.reciprocal(new BigDecimal("150")), new BigDecimal("0.307"));
+
+        assertThat(rate.precision()).isEqualTo(16);
+        assertThat(rate.subtract(new BigDecimal("0.307").divide(new BigDecimal("150"), 20, RoundingMode.HALF_UP)).abs())
+                .isLessThan(new BigDecimal("1E-18"));
+    }
+
+    @Test
+    void snapshotOlderThanTheProviderMaximumAgeIsStillServed() {
+        CurrencyConversionService offline = newServiceWithoutRates();
+        assertThat(offline.install(new RateSnapshot("USD", Instant.now().minus(Duration.ofDays(3)),
+                Map.of("EUR", new BigDecimal("0.90"))))).isTrue();
+
+        assertThat(offline.getExchangeRate("USD", "EUR")).isEqualByComparingTo("0.90");
+    }
+
+    @Test
+    void snapshotPastTheSnapshotMaximumAgeIsNotInstalled() {
+        CurrencyConversionService offline = newServiceWithoutRates();
+
+        assertThat(offline.install(new RateSnapshot("USD", Instant.now().minus(Duration.ofDays(31)),
+                Map.of("EUR", new BigDecimal("0.90"))))).isFalse();
+        assertThat(offline.currentSnapshot()).isNull();
+    }
+
+    @Test
+    void withoutAProviderSnapshotRatesAreServedWithoutFetching() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CurrencyConversionService offline = new CurrencyConversionService("USD", Duration.ofHours(1), Duration.ofHours(24),
+                Duration.ofDays(30), Duration.ofSeconds(3), 5, Duration.ofSeconds(30), registry);
+        ReflectionTestUtils.setField(offline, "exchangeRateHistoryService", mock(ExchangeRateHistoryService.class));
+        offline.preload();
+        offline.install(new RateSnapshot("USD", Instant.now().minus(Duration.ofDays(3)), Map.of("EUR", new BigDecimal("0.90"))));
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(offline.getExchangeRate("USD", "EUR")).isEqualByComparingTo("0.90");
+        }
+
+        assertThat(registry.get("currency.provider.latency").timers()).allSatisfy(timer -> assertThat(timer.count()).isZero());
+        assertThat(registry.get("currency.provider.rejected").counter().count()).isZero();
+        assertThat(registry.get("currency.provider.circuit").gauge().value()).isZero();
+    }
+
+    @Test
+    void anchorRatesPassThroughExactly() {
+        assertThat(service.getExchangeRate("USD", "EUR")).isEqualByComparingTo("0.92");
+        assertThat(service.getExchangeRate("EUR", "EUR")).isEqualByComparingTo("1");
+    }
+
+    private static CurrencyConversionService newServiceWithoutRates() {
+        CurrencyConversionService service = new CurrencyConversionService("USD", Duration.ofHours(1), Duration.ofHours(24),
+                Duration.ofDays(30), Duration.ofSeconds(3), 5, Duration.ofSeconds(30), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "exchangeRateHistoryService", mock(ExchangeRateHistoryService.class));
+        return service;
+    }
+}
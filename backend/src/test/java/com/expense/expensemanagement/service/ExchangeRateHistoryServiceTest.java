@@ -0,0 +1,147 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.model.ExchangeRate;
+import com.expense.expensemanagement.repository.ExchangeRateRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExchangeRateHistoryServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 20);
+
+    private final ExchangeRateRepository exchangeRateRepository = mock(ExchangeRateRepository.class);
+    private final FixedExchangeRateProvider fixedProvider = new FixedExchangeRateProvider("EUR:0.92,GBP:0.79");
+
+    @Test
+    void unrecordedDaysCarryThePreviousRatesForward() {
+        ExchangeRateHistoryService history = history(30, 0, fixedProvider);
+
+        history.record(TODAY.minusDays(5), Map.of("EUR", new BigDecimal("0.90")));
+        history.record(TODAY.minusDays(2), Map.of("EUR", new BigDecimal("0.80")));
+
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(5))).isEqualByComparingTo("0.90");
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(3))).isEqualByComparingTo("0.90");
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(2))).isEqualByComparingTo("0.80");
+        assertThat(history.getRate("EUR", "USD", TODAY.minusDays(4)))
+                .isEqualByComparingTo(CurrencyConversionService.reciprocal(new BigDecimal("0.90")));
+    }
+
+    @Test
+    void rateIsNullOutsideTheRecordedDaysAndForUnknownCurrencies() {
+        ExchangeRateHistoryService history = history(30, 0, fixedProvider);
+        assertThat(history.getRate("USD", "EUR", TODAY)).isNull();
+
+        history.record(TODAY.minusDays(5), Map.of("EUR", new BigDecimal("0.90")));
+        history.record(TODAY.minusDays(2), Map.of("EUR", new BigDecimal("0.80")));
+
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(6))).isNull();
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(5))).isNotNull();
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(2))).isNotNull();
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(1))).isNull();
+        assertThat(history.getRate("USD", "GBP", TODAY.minusDays(5))).isNull();
+        assertThat(history.getRate("USD", "XYZ", TODAY.minusDays(5))).isNull();
+    }
+
+    @Test
+    void recordingDropsDaysThatLeftTheWindow() {
+        ExchangeRateHistoryService history = history(10, 0, fixedProvider);
+
+        history.record(TODAY.minusDays(12), Map.of("EUR", new BigDecimal("0.90")));
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(12))).isNull();
+
+        history.record(TODAY.minusDays(9), Map.of("EUR", new BigDecimal("0.85")));
+        history.record(TODAY, Map.of("EUR", new BigDecimal("0.80")));
+
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(10))).isNull();
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(9))).isEqualByComparingTo("0.85");
+        assertThat(history.getRate("USD", "EUR", TODAY)).isEqualByComparingTo("0.80");
+    }
+
+    @Test
+    void loadKeepsDaysRecordedWhileItRan() {
+        ExchangeRateHistoryService history = history(30, 0, fixedProvider);
+        when(exchangeRateRepository.findHistory("USD", TODAY.minusDays(29))).thenReturn(List.of(
+                new ExchangeRate("USD", TODAY.minusDays(3), "USD", BigDecimal.ONE),
+                new ExchangeRate("USD", TODAY.minusDays(3), "EUR", new BigDecimal("0.70")),
+                new ExchangeRate("USD", TODAY.minusDays(1), "USD", BigDecimal.ONE),
+                new ExchangeRate("USD", TODAY.minusDays(1), "EUR", new BigDecimal("0.75"))));
+
+        history.record(TODAY.minusDays(1), Map.of("EUR", new BigDecimal("0.95")));
+        history.load();
+
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(3))).isEqualByComparingTo("0.70");
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(1))).isEqualByComparingTo("0.95");
+    }
+
+    @Test
+    void loadBackfillsMissingDaysFromTheProvider() {
+        ExchangeRateHistoryService history = history(30, 3, fixedProvider);
+        when(exchangeRateRepository.findRecordedDates("USD", TODAY.minusDays(3))).thenReturn(List.of(TODAY.minusDays(2)));
+
+        history.load();
+
+        verify(exchangeRateRepository, times(2)).saveAll(anyList());
+        verify(exchangeRateRepository, never()).deleteDay("USD", TODAY.minusDays(2));
+        assertThat(history.getRate("GBP", "EUR", TODAY.minusDays(1))).isEqualByComparingTo(
+                CurrencyConversionService.crossRate(CurrencyConversionService.reciprocal(new BigDecimal("0.79")), new BigDecimal("0.92")));
+    }
+
+    @Test
+    void backfillStopsAtTheFirstFailure() throws IOException {
+        ExchangeRateProvider provider = mock(ExchangeRateProvider.class);
+        when(provider.fetchRates("USD", TODAY.minusDays(3))).thenReturn(Map.of("EUR", new BigDecimal("0.90")));
+        when(provider.fetchRates("USD", TODAY.minusDays(2))).thenThrow(new IOException("provider down"));
+        ExchangeRateHistoryService history = history(30, 0, provider);
+
+        history.backfill(TODAY.minusDays(3), TODAY.minusDays(1));
+
+        verify(provider, never()).fetchRates("USD", TODAY.minusDays(1));
+        verify(exchangeRateRepository, times(1)).saveAll(anyList());
+        assertThat(history.getRate("USD", "EUR", TODAY.minusDays(3))).isEqualByComparingTo("0.90");
+    }
+
+    @Test
+    void unchangedDayIsNotRewritten() throws IOException {
+        ExchangeRateHistoryService history = history(30, 0, fixedProvider);
+
+        history.record(TODAY, fixedProvider.fetchRates("USD"));
+        history.record(TODAY, fixedProvider.fetchRates("USD"));
+
+        verify(exchangeRateRepository, times(1)).deleteDay("USD", TODAY);
+        verify(exchangeRateRepository, times(1)).saveAll(anyList());
+
+        history.record(TODAY, Map.of("EUR", new BigDecimal("0.93"), "GBP", new BigDecimal("0.79")));
+
+        verify(exchangeRateRepository, times(2)).deleteDay(eq("USD"), any());
+        assertThat(history.getRate("USD", "EUR", TODAY)).isEqualByComparingTo("0.93");
+    }
+
+    private ExchangeRateHistoryService history(int historyDays, int backfillDays, ExchangeRateProvider provider) {
+        Clock clock = Clock.fixed(Instant.parse("2024-03-20T12:00:00Z"), ZoneOffset.UTC);
+        ExchangeRateHistoryService history = new ExchangeRateHistoryService("USD", historyDays, backfillDays,
+                mock(PlatformTransactionManager.class), clock);
+        ReflectionTestUtils.setField(history, "exchangeRateRepository", exchangeRateRepository);
+        ReflectionTestUtils.setField(history, "exchangeRateProvider", provider);
+        return history;
+    }
+}
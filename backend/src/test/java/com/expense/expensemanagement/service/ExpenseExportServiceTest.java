@@ -0,0 +1,117 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.repository.ExpenseRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExpenseExportServiceTest {
+
+    private static final Long COMPANY_ID = 7L;
+
+    private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+    private ExpenseExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExpenseExportService(mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(exportService, "expenseRepository", expenseRepository);
+        ReflectionTestUtils.setField(exportService, "entityManager", mock(EntityManager.class));
+    }
+
+    @Test
+    void formulaCellsAreWrittenAsText() throws IOException {
+        assertThat(csvField("=HYPERLINK(\"http://x\")")).isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\"");
+        assertThat(csvField("+1+2")).isEqualTo("'+1+2");
+        assertThat(csvField("-2+3")).isEqualTo("'-2+3");
+        assertThat(csvField("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(csvField("\tcmd")).isEqualTo("'\tcmd");
+        assertThat(csvField("Taxi, airport")).isEqualTo("\"Taxi, airport\"");
+        assertThat(csvField("a=b")).isEqualTo("a=b");
+        assertThat(csvField(null)).isEmpty();
+    }
+
+    @Test
+    void csvRowNeutralisesUserText() {
+        when(expenseRepository.streamForExport(COMPANY_ID)).thenReturn(Stream.of(expense("=1+1", "@notes")));
+
+        String csv = export(ExpenseExportService.Format.CSV, null, null);
+
+        assertThat(csv).contains(",'=1+1,").contains(",'@notes,");
+    }
+
+    @Test
+    void ndjsonKeepsTextAsIs() {
+        when(expenseRepository.streamForExport(COMPANY_ID)).thenReturn(Stream.of(expense("=1+1", null)));
+
+        String ndjson = export(ExpenseExportService.Format.NDJSON, null, null);
+
+        assertThat(ndjson).contains("\"description\":\"=1+1\"");
+    }
+
+    @Test
+    void startDateAloneIsOpenEnded() {
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        when(expenseRepository.streamForExport(COMPANY_ID, start, ExpenseExportService.LATEST_DATE)).thenReturn(Stream.empty());
+
+        export(ExpenseExportService.Format.CSV, start, null);
+
+        verify(expenseRepository).streamForExport(COMPANY_ID, start, ExpenseExportService.LATEST_DATE);
+        verify(expenseRepository, never()).streamForExport(COMPANY_ID);
+    }
+
+    @Test
+    void endDateAloneIsOpenEnded() {
+        LocalDate end = LocalDate.of(2024, 3, 31);
+        when(expenseRepository.streamForExport(COMPANY_ID, ExpenseExportService.EARLIEST_DATE, end)).thenReturn(Stream.empty());
+
+        export(ExpenseExportService.Format.CSV, null, end);
+
+        verify(expenseRepository).streamForExport(COMPANY_ID, ExpenseExportService.EARLIEST_DATE, end);
+        verify(expenseRepository, never()).streamForExport(any());
+    }
+
+    private String export(ExpenseExportService.Format format, LocalDate startDate, LocalDate endDate) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportCompanyExpenses(COMPANY_ID, format, startDate, endDate, output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String csvField(String value) throws IOException {
+        StringWriter writer = new StringWriter();
+        ExpenseExportService.writeCsvField(writer, value);
+        return writer.toString();
+    }
+
+    private static Expense expense(String description, String notes) {
+        User employee = new User();
+        employee.setId(3L);
+        employee.setFirstName("Ada");
+        employee.setLastName("Lovelace");
+        employee.setEmail("ada@example.com");
+        Expense expense = new Expense(description, new BigDecimal("12.50"), "USD", Expense.ExpenseCategory.TRAVEL,
+                LocalDate.of(2024, 3, 5), employee, null);
+        expense.setId(11L);
+        expense.setNotes(notes);
+        return expense;
+    }
+}
@@ -0,0 +1,103 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.dto.ExpenseImportResult;
+import com.expense.expensemanagement.model.Company;
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.repository.CompanyRepository;
+import com.expense.expensemanagement.repository.ExpenseRepository;
+import com.expense.expensemanagement.repository.UserRepository;
+import com.expense.expensemanagement.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExpenseImportServiceTest {
+
+    private static final String HEADER = "description,amount,currency,category,expense_date\n";
+
+    private final ExpenseRepository expenseRepository = mock(ExpenseRepository.class);
+    private final List<String> saved = new ArrayList<>();
+    private ExpenseImportService importService;
+    private UserPrincipal importer;
+
+    @BeforeEach
+    void setUp() {
+        Company company = new Company("Acme", "USD");
+        ReflectionTestUtils.setField(company, "id", 7L);
+        User user = new User("alice", "alice@acme.test", "x", "Alice", "Smith", company, null);
+        ReflectionTestUtils.setField(user, "id", 1L);
+        importer = UserPrincipal.create(1L, "alice", "alice@acme.test", "EMPLOYEE", 7L, 0L);
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        CurrencyConversionService currencyConversionService = mock(CurrencyConversionService.class);
+        when(currencyConversionService.isCurrencySupported(anyString())).thenReturn(true);
+        when(currencyConversionService.recordedRate(any())).thenAnswer(call -> call.getArgument(0));
+        when(currencyConversionService.applyRate(any(), any())).thenAnswer(call -> call.getArgument(0));
+
+        // The import reuses its batch list, so descriptions are copied out as each batch is saved
+        when(expenseRepository.saveAllAndFlush(any())).thenAnswer(call -> {
+            List<Expense> batch = call.getArgument(0);
+            batch.forEach(expense -> saved.add(expense.getDescription()));
+            return batch;
+        });
+
+        importService = new ExpenseImportService(mock(PlatformTransactionManager.class), 2);
+        ReflectionTestUtils.setField(importService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(importService, "currencyConversionService", currencyConversionService);
+        ReflectionTestUtils.setField(importService, "exchangeRateHistoryService", mock(ExchangeRateHistoryService.class));
+        ReflectionTestUtils.setField(importService, "expenseRepository", expenseRepository);
+        ReflectionTestUtils.setField(importService, "companyRepository", mock(CompanyRepository.class));
+        ReflectionTestUtils.setField(importService, "expenseRollupService", mock(ExpenseRollupService.class));
+        ReflectionTestUtils.setField(importService, "entityManager", mock(EntityManager.class));
+    }
+
+    @Test
+    void invalidRowsAreReportedAndSkipped() throws IOException {
+        ExpenseImportResult result = importCsv(HEADER +
+                "Taxi,12.50,USD,TRAVEL,2024-03-05\n" +
+                "Lunch,-1,USD,MEALS,2024-03-05\n" +
+                "Hotel,90,USD,ACCOMMODATION,2024-03-06\n");
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ExpenseImportResult.RowError::getLine).containsExactly(3);
+    }
+
+    @Test
+    void unparseableRecordEndsTheImportKeepingEarlierRows() throws IOException {
+        ExpenseImportResult result = importCsv(HEADER +
+                "Taxi,12.50,USD,TRAVEL,2024-03-05\n" +
+                "Lunch,8,USD,MEALS,2024-03-05\n" +
+                "Hotel,90,USD,ACCOMMODATION,2024-03-06\n" +
+                "\"Never closed,5,USD,MEALS,2024-03-07\n" +
+                "Train,20,USD,TRAVEL,2024-03-08\n");
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(5);
+            assertThat(error.getMessage()).isEqualTo("Unterminated quoted field starting on line 5");
+        });
+        assertThat(saved).containsExactly("Taxi", "Lunch", "Hotel");
+    }
+
+    private ExpenseImportResult importCsv(String csv) throws IOException {
+        return importService.importExpenses(importer, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
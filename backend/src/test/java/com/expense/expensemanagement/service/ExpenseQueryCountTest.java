@@ -0,0 +1,134 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.dto.ExpenseDto;
+import com.expense.expensemanagement.model.ApprovalStep;
+import com.expense.expensemanagement.model.Company;
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.ExpenseComment;
+import com.expense.expensemanagement.model.Role;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.security.AccessPolicy;
+import com.expense.expensemanagement.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Statement counts for the expense listing and detail paths, which turn every expense into a DTO
+ * with its employee, company, approval steps and comments. The counts must not grow with the
+ * number of rows on a page.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ExpenseService.class)
+class ExpenseQueryCountTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CurrencyConversionService currencyConversionService;
+
+    @MockBean
+    private AccessPolicy accessPolicy;
+
+    @MockBean
+    private ExpenseRollupService expenseRollupService;
+
+    private Statistics statistics;
+    private UserPrincipal admin;
+    private Long firstExpenseId;
+
+    @BeforeEach
+    void setUp() {
+        Company company = entityManager.persist(new Company("Acme", "USD"));
+        Role adminRole = entityManager.persist(new Role(Role.RoleType.ADMIN, "Administrator"));
+        Role managerRole = entityManager.persist(new Role(Role.RoleType.MANAGER, "Manager"));
+        Role employeeRole = entityManager.persist(new Role(Role.RoleType.EMPLOYEE, "Employee"));
+        User adminUser = entityManager.persist(new User("admin", "admin@acme.test", "x", "Ada", "Admin", company, adminRole));
+        User manager = entityManager.persist(new User("manager", "manager@acme.test", "x", "Max", "Manager", company, managerRole));
+        User director = entityManager.persist(new User("director", "director@acme.test", "x", "Dee", "Director", company, managerRole));
+
+        for (int i = 0; i < 20; i++) {
+            User employee = entityManager.persist(new User("employee" + i, "employee" + i + "@acme.test", "x",
+                    "Eve", "Employee " + i, company, employeeRole));
+            Expense expense = new Expense("Taxi " + i, new BigDecimal("12.50"), "USD",
+                    Expense.ExpenseCategory.TRAVEL, LocalDate.of(2024, 3, 1).plusDays(i), employee, company);
+            expense.setConvertedAmount(expense.getAmount());
+            expense.setConvertedCurrency("USD");
+            expense.setExchangeRate(BigDecimal.ONE);
+            entityManager.persist(expense);
+            entityManager.persist(new ApprovalStep(1, expense, manager));
+            entityManager.persist(new ApprovalStep(2, expense, director));
+            entityManager.persist(new ExpenseComment("Receipt attached", expense, employee));
+            entityManager.persist(new ExpenseComment("Checked", expense, manager));
+            if (i == 0) {
+                firstExpenseId = expense.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        admin = UserPrincipal.create(adminUser.getId(), "admin", "admin@acme.test", "ADMIN", company.getId(), 0L);
+        when(accessPolicy.canViewExpense(any(), any())).thenReturn(true);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchPageIsLoadedInAFixedNumberOfStatements() {
+        Page<ExpenseDto> page = search(20);
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getContent()).allSatisfy(expense -> {
+            assertThat(expense.getApprovalSteps()).hasSize(2);
+            assertThat(expense.getComments()).hasSize(2);
+        });
+        long twentyRows = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        assertThat(search(5).getContent()).hasSize(5);
+        long fiveRows = statistics.getPrepareStatementCount();
+
+        // Page with employee and company, count, then one batch each for steps, comments and approvers
+        assertThat(twentyRows).isEqualTo(fiveRows).isEqualTo(5);
+    }
+
+    @Test
+    void detailIsLoadedInAFixedNumberOfStatements() {
+        ExpenseDto expense = expenseService.getExpense(firstExpenseId, admin);
+
+        assertThat(expense.getApprovalSteps()).hasSize(2);
+        assertThat(expense.getComments()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    private Page<ExpenseDto> search(int size) {
+        return expenseService.searchExpenses(admin, null, null, null, null, null, PageRequest.of(0, size));
+    }
+}
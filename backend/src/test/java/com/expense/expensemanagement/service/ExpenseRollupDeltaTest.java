@@ -0,0 +1,154 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.dto.ApprovalActionRequest;
+import com.expense.expensemanagement.dto.CreateExpenseRequest;
+import com.expense.expensemanagement.dto.ExpenseDto;
+import com.expense.expensemanagement.model.ApprovalStep;
+import com.expense.expensemanagement.model.Company;
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.Role;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.repository.ExpenseRepository;
+import com.expense.expensemanagement.repository.ExpenseRollupRepository;
+import com.expense.expensemanagement.security.AccessPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives expenses through the service paths that apply rollup deltas and checks the rollups
+ * against a fresh aggregate of the expenses table, i.e. what a full rebuild would write.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ExpenseService.class, ApprovalService.class, ExpenseRollupService.class})
+class ExpenseRollupDeltaTest {
+
+    private static final LocalDate FIRST_PERIOD = LocalDate.of(2024, 1, 1);
+    private static final LocalDate LAST_PERIOD = LocalDate.of(2024, 12, 1);
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ApprovalService approvalService;
+
+    @Autowired
+    private ExpenseRollupService expenseRollupService;
+
+    @Autowired
+    private ExpenseRollupRepository expenseRollupRepository;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private CurrencyConversionService currencyConversionService;
+
+    @MockBean
+    private AccessPolicy accessPolicy;
+
+    private Company company;
+    private User employee;
+    private User manager;
+
+    @BeforeEach
+    void setUp() {
+        company = entityManager.persist(new Company("Acme", "USD"));
+        Role managerRole = entityManager.persist(new Role(Role.RoleType.MANAGER, "Manager"));
+        Role employeeRole = entityManager.persist(new Role(Role.RoleType.EMPLOYEE, "Employee"));
+        manager = entityManager.persist(new User("manager", "manager@acme.test", "x", "Max", "Manager", company, managerRole));
+        employee = entityManager.persist(new User("employee", "employee@acme.test", "x", "Eve", "Employee", company, employeeRole));
+
+        when(currencyConversionService.isCurrencySupported(any())).thenReturn(true);
+        when(currencyConversionService.getExchangeRate(any(), any(), any())).thenReturn(BigDecimal.ONE);
+        when(currencyConversionService.applyRate(any(), any())).thenAnswer(call -> call.getArgument(0));
+        when(currencyConversionService.recordedRate(any())).thenAnswer(call -> call.getArgument(0));
+    }
+
+    @Test
+    void deltasMatchAFullRebuild() {
+        ExpenseDto taxi = create("Taxi", "12.50", Expense.ExpenseCategory.TRAVEL, LocalDate.of(2024, 3, 5));
+        ExpenseDto lunch = create("Lunch", "30.00", Expense.ExpenseCategory.MEALS, LocalDate.of(2024, 3, 10));
+        ExpenseDto train = create("Train", "7.25", Expense.ExpenseCategory.TRAVEL, LocalDate.of(2024, 4, 2));
+        ExpenseDto pens = create("Pens", "5.00", Expense.ExpenseCategory.OTHER, LocalDate.of(2024, 3, 20));
+        ExpenseDto hotel = create("Hotel", "99.00", Expense.ExpenseCategory.ACCOMMODATION, LocalDate.of(2024, 3, 21));
+
+        // Moves the expense to another month, category and amount
+        pens.setAmount(new BigDecimal("6.40"));
+        pens.setCategory(Expense.ExpenseCategory.MEALS);
+        pens.setExpenseDate(LocalDate.of(2024, 2, 28));
+        expenseService.updateExpense(pens.getId(), pens, employee.getId());
+        expenseService.deleteExpense(hotel.getId(), employee.getId());
+
+        expenseService.submitExpense(taxi.getId(), employee.getId());
+        expenseService.submitExpense(lunch.getId(), employee.getId());
+        expenseService.submitExpense(train.getId(), employee.getId());
+        act(taxi.getId(), "APPROVE");
+        act(lunch.getId(), "REJECT");
+        entityManager.flush();
+
+        List<String> fromDeltas = dashboard();
+        assertThat(fromDeltas).containsExactlyInAnyOrderElementsOf(aggregate());
+        assertThat(fromDeltas).containsExactlyInAnyOrder(
+                "2024-02 MEALS DRAFT 1 6.40",
+                "2024-03 TRAVEL APPROVED 1 12.50",
+                "2024-03 MEALS REJECTED 1 30.00",
+                "2024-04 TRAVEL SUBMITTED 1 7.25");
+
+        expenseRollupService.rebuild(company.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(dashboard()).containsExactlyInAnyOrderElementsOf(fromDeltas);
+    }
+
+    private ExpenseDto create(String description, String amount, Expense.ExpenseCategory category, LocalDate date) {
+        return expenseService.createExpense(employee.getId(),
+                new CreateExpenseRequest(description, new BigDecimal(amount), "USD", category, date));
+    }
+
+    private void act(Long expenseId, String action) {
+        ApprovalStep step = entityManager.persist(new ApprovalStep(1, expenseRepository.findById(expenseId).orElseThrow(), manager));
+        ApprovalActionRequest request = new ApprovalActionRequest();
+        request.setApprovalStepId(step.getId());
+        request.setAction(action);
+        approvalService.processApprovalAction(request, manager.getId());
+    }
+
+    private List<String> dashboard() {
+        return expenseRollupRepository.findDashboard(company.getId(), FIRST_PERIOD, LAST_PERIOD).stream()
+                .map(cell -> cell(cell.getPeriod(), cell.getCategory(), cell.getStatus(),
+                        cell.getExpenseCount(), cell.getTotalAmount()))
+                .collect(Collectors.toList());
+    }
+
+    private List<String> aggregate() {
+        return expenseRepository.aggregateForRollup(company.getId()).stream()
+                .map(row -> cell(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
+                        (Expense.ExpenseCategory) row[2], (Expense.ExpenseStatus) row[3],
+                        ((Number) row[4]).longValue(), (BigDecimal) row[5]))
+                .collect(Collectors.toList());
+    }
+
+    private static String cell(YearMonth period, Expense.ExpenseCategory category, Expense.ExpenseStatus status,
+                               long count, BigDecimal amount) {
+        return period + " " + category + " " + status + " " + count + " " + amount.setScale(2);
+    }
+}
@@ -0,0 +1,63 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.dto.ExpenseDashboardDto;
+import com.expense.expensemanagement.dto.ExpenseRollupDto;
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.repository.ExpenseRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExpenseRollupServiceTest {
+
+    private static final Long COMPANY_ID = 4L;
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+
+    private final ExpenseRollupRepository expenseRollupRepository = mock(ExpenseRollupRepository.class);
+
+    @Test
+    void dashboardTotalsCellsByStatusAndCategory() {
+        ExpenseDashboardDto dashboard = dashboard(List.of(
+                cell(Expense.ExpenseCategory.TRAVEL, Expense.ExpenseStatus.APPROVED, 3, "120.50"),
+                cell(Expense.ExpenseCategory.MEALS, Expense.ExpenseStatus.APPROVED, 2, "30.25"),
+                cell(Expense.ExpenseCategory.TRAVEL, Expense.ExpenseStatus.SUBMITTED, 1, "9.99")));
+
+        assertThat(dashboard.getTotalByStatus().get(Expense.ExpenseStatus.APPROVED)).isEqualByComparingTo("150.75");
+        assertThat(dashboard.getTotalByCategory().get(Expense.ExpenseCategory.TRAVEL)).isEqualByComparingTo("130.49");
+        assertThat(dashboard.getTotalByCategory().get(Expense.ExpenseCategory.OTHER)).isEqualByComparingTo("0");
+        assertThat(dashboard.getTotalAmount()).isEqualByComparingTo("160.74");
+        assertThat(dashboard.getExpenseCount()).isEqualTo(6);
+    }
+
+    @Test
+    void cellBeyondALongOfMinorUnitsIsStillTotalled() {
+        BigDecimal huge = new BigDecimal("234567890123456789.01");
+
+        ExpenseDashboardDto dashboard = dashboard(List.of(
+                cell(Expense.ExpenseCategory.TRAVEL, Expense.ExpenseStatus.APPROVED, 1, huge.toPlainString()),
+                cell(Expense.ExpenseCategory.TRAVEL, Expense.ExpenseStatus.APPROVED, 1, "0.99")));
+
+        assertThat(dashboard.getTotalAmount()).isEqualByComparingTo(huge.add(new BigDecimal("0.99")));
+        assertThat(dashboard.getTotalByStatus().get(Expense.ExpenseStatus.APPROVED)).isEqualByComparingTo(huge.add(new BigDecimal("0.99")));
+    }
+
+    private ExpenseDashboardDto dashboard(List<ExpenseRollupDto> cells) {
+        ExpenseRollupService service = new ExpenseRollupService(mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "expenseRollupRepository", expenseRollupRepository);
+        when(expenseRollupRepository.findDashboard(COMPANY_ID, MARCH.atDay(1), MARCH.atDay(1))).thenReturn(cells);
+        return service.getDashboard(COMPANY_ID, MARCH, MARCH);
+    }
+
+    private static ExpenseRollupDto cell(Expense.ExpenseCategory category, Expense.ExpenseStatus status, long count, String amount) {
+        return new ExpenseRollupDto(LocalDate.of(2024, 3, 1), category, status, count, new BigDecimal(amount));
+    }
+}
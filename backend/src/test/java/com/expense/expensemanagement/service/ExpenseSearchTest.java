@@ -0,0 +1,130 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.dto.ExpenseDto;
+import com.expense.expensemanagement.model.Company;
+import com.expense.expensemanagement.model.Expense;
+import com.expense.expensemanagement.model.Role;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.security.AccessPolicy;
+import com.expense.expensemanagement.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({ExpenseService.class, UserHierarchyService.class})
+class ExpenseSearchTest {
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private UserHierarchyService userHierarchyService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private CurrencyConversionService currencyConversionService;
+
+    @MockBean
+    private AccessPolicy accessPolicy;
+
+    @MockBean
+    private ExpenseRollupService expenseRollupService;
+
+    private UserPrincipal admin;
+    private UserPrincipal manager;
+    private UserPrincipal employee;
+
+    // The manager heads a team lead, who heads one report; the outsider reports to nobody
+    @BeforeEach
+    void setUp() {
+        Company company = entityManager.persist(new Company("Acme", "USD"));
+        Company other = entityManager.persist(new Company("Globex", "USD"));
+        Role adminRole = entityManager.persist(new Role(Role.RoleType.ADMIN, "Administrator"));
+        Role managerRole = entityManager.persist(new Role(Role.RoleType.MANAGER, "Manager"));
+        Role employeeRole = entityManager.persist(new Role(Role.RoleType.EMPLOYEE, "Employee"));
+        User adminUser = user("admin", company, adminRole);
+        User managerUser = user("manager", company, managerRole);
+        User lead = user("lead", company, managerRole);
+        User report = user("report", company, employeeRole);
+        User outsider = user("outsider", company, employeeRole);
+        User stranger = user("stranger", other, employeeRole);
+
+        userHierarchyService.addUser(managerUser.getId(), null);
+        userHierarchyService.addUser(lead.getId(), managerUser.getId());
+        userHierarchyService.addUser(report.getId(), lead.getId());
+        userHierarchyService.addUser(outsider.getId(), null);
+
+        expense("Manager lunch", managerUser, company, Expense.ExpenseCategory.MEALS, Expense.ExpenseStatus.APPROVED, 1);
+        expense("Lead taxi", lead, company, Expense.ExpenseCategory.TRAVEL, Expense.ExpenseStatus.SUBMITTED, 2);
+        expense("Report taxi", report, company, Expense.ExpenseCategory.TRAVEL, Expense.ExpenseStatus.APPROVED, 3);
+        expense("Outsider taxi", outsider, company, Expense.ExpenseCategory.TRAVEL, Expense.ExpenseStatus.APPROVED, 4);
+        expense("Stranger taxi", stranger, other, Expense.ExpenseCategory.TRAVEL, Expense.ExpenseStatus.APPROVED, 5);
+        entityManager.flush();
+        entityManager.clear();
+
+        admin = principal(adminUser, "ADMIN");
+        manager = principal(managerUser, "MANAGER");
+        employee = principal(report, "EMPLOYEE");
+    }
+
+    @Test
+    void adminSearchesTheWholeCompany() {
+        assertThat(search(admin, null, null, null)).containsExactly("Outsider taxi", "Report taxi", "Lead taxi", "Manager lunch");
+    }
+
+    @Test
+    void managerSearchesTheirWholeSubtree() {
+        assertThat(search(manager, null, null, null)).containsExactly("Report taxi", "Lead taxi", "Manager lunch");
+    }
+
+    @Test
+    void employeeSearchesTheirOwnExpenses() {
+        assertThat(search(employee, null, null, null)).containsExactly("Report taxi");
+    }
+
+    @Test
+    void filtersNarrowTheScope() {
+        assertThat(search(manager, "TAXI", null, null)).containsExactly("Report taxi", "Lead taxi");
+        assertThat(search(manager, null, Expense.ExpenseStatus.APPROVED, null)).containsExactly("Report taxi", "Manager lunch");
+        assertThat(search(admin, null, null, LocalDate.of(2024, 3, 3))).containsExactly("Outsider taxi", "Report taxi");
+    }
+
+    private List<String> search(UserPrincipal user, String description, Expense.ExpenseStatus status, LocalDate startDate) {
+        return expenseService.searchExpenses(user, description, null, status, startDate, null, PageRequest.of(0, 20))
+                .map(ExpenseDto::getDescription)
+                .getContent();
+    }
+
+    private User user(String username, Company company, Role role) {
+        return entityManager.persist(new User(username, username + "@acme.test", "x", "Test", username, company, role));
+    }
+
+    private void expense(String description, User employee, Company company, Expense.ExpenseCategory category,
+                         Expense.ExpenseStatus status, int day) {
+        Expense expense = new Expense(description, new BigDecimal("12.50"), "USD", category,
+                LocalDate.of(2024, 3, day), employee, company);
+        expense.setStatus(status);
+        expense.setConvertedAmount(expense.getAmount());
+        expense.setConvertedCurrency("USD");
+        expense.setExchangeRate(BigDecimal.ONE);
+        entityManager.persist(expense);
+    }
+
+    private static UserPrincipal principal(User user, String role) {
+        return UserPrincipal.create(user.getId(), user.getUsername(), user.getEmail(), role, user.getCompany().getId(), 0L);
+    }
+}
@@ -0,0 +1,130 @@
+package com.expense.expensemanagement.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput for the two id strategies, issued the way Hibernate issues them. IDENTITY
+ * needs the generated key back before the next insert, so every row is its own statement; a
+ * pooled sequence hands out 50 ids per call and the rows go out as JDBC batches of 50.
+ * <p>
+ * Runs against in-process H2, where a round trip is a method call. Over a network each of the
+ * per-row statements also pays the latency, so the gap here is the smallest it gets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final int BLOCK = 50;
+
+    private static final String COLUMNS = "description VARCHAR(255), amount DECIMAL(19,2), currency VARCHAR(3)";
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:ids;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE identity_expenses (id BIGINT AUTO_INCREMENT PRIMARY KEY, " + COLUMNS + ")");
+            ddl.execute("CREATE TABLE pooled_expenses (id BIGINT PRIMARY KEY, " + COLUMNS + ")");
+            ddl.execute("CREATE SEQUENCE pooled_expenses_seq START WITH 1 INCREMENT BY " + BLOCK);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("TRUNCATE TABLE identity_expenses");
+            ddl.execute("TRUNCATE TABLE pooled_expenses");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long identity() throws SQLException {
+        long lastId = 0;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO identity_expenses (description, amount, currency) VALUES (?, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(insert, i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                    lastId = keys.getLong(1);
+                }
+            }
+        }
+        connection.commit();
+        return lastId;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long pooledSequence() throws SQLException {
+        long nextId = 0;
+        long blockEnd = 0;
+        try (PreparedStatement sequence = connection.prepareStatement("SELECT NEXT VALUE FOR pooled_expenses_seq");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO pooled_expenses (id, description, amount, currency) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                if (nextId == blockEnd) {
+                    try (ResultSet value = sequence.executeQuery()) {
+                        value.next();
+                        nextId = value.getLong(1);
+                        blockEnd = nextId + BLOCK;
+                    }
+                }
+                insert.setLong(1, nextId++);
+                insert.setString(2, "Expense " + i);
+                insert.setBigDecimal(3, BigDecimal.valueOf(i, 2));
+                insert.setString(4, "USD");
+                insert.addBatch();
+                if ((i + 1) % BLOCK == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return nextId;
+    }
+
+    private static void bind(PreparedStatement insert, int i) throws SQLException {
+        insert.setString(1, "Expense " + i);
+        insert.setBigDecimal(2, BigDecimal.valueOf(i, 2));
+        insert.setString(3, "USD");
+    }
+}
@@ -0,0 +1,76 @@
+package com.expense.expensemanagement.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing money amounts: BigDecimal accumulation against MoneyTotal, both from BigDecimal
+ * amounts (what the import and dashboard hold) and from amounts already in minor units.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyTotalBenchmark {
+
+    private static final int AMOUNTS = 10_000;
+
+    private BigDecimal[] amounts;
+    private long[] minorUnits;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new BigDecimal[AMOUNTS];
+        minorUnits = new long[AMOUNTS];
+        for (int i = 0; i < AMOUNTS; i++) {
+            minorUnits[i] = 1 + random.nextInt(500_000);
+            amounts[i] = BigDecimal.valueOf(minorUnits[i], 2);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public BigDecimal bigDecimalSum() {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            sum = sum.add(amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public BigDecimal moneyTotalFromBigDecimal() {
+        MoneyTotal total = new MoneyTotal();
+        for (BigDecimal amount : amounts) {
+            total.add(amount);
+        }
+        return total.toBigDecimal();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(AMOUNTS)
+    public BigDecimal moneyTotalFromMinorUnits() {
+        MoneyTotal total = new MoneyTotal();
+        for (long amount : minorUnits) {
+            total.add(amount);
+        }
+        return total.toBigDecimal();
+    }
+}
@@ -0,0 +1,94 @@
+package com.expense.expensemanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTotalTest {
+
+    @Test
+    void sumsExactly() {
+        MoneyTotal total = new MoneyTotal();
+        for (int i = 0; i < 10; i++) {
+            total.add(new BigDecimal("0.10"));
+        }
+        total.add(new BigDecimal("5"));
+
+        assertThat(total.toBigDecimal()).isEqualByComparingTo("6.00");
+        assertThat(total.toBigDecimal().scale()).isEqualTo(2);
+        assertThat(total.getCount()).isEqualTo(11);
+    }
+
+    @Test
+    void nullIsCountedButAddsNothing() {
+        MoneyTotal total = new MoneyTotal().add(new BigDecimal("1.25")).add((BigDecimal) null);
+
+        assertThat(total.getCount()).isEqualTo(2);
+        assertThat(total.toBigDecimal()).isEqualByComparingTo("1.25");
+    }
+
+    @Test
+    void amountNeedingRoundingIsRejected() {
+        MoneyTotal total = new MoneyTotal();
+
+        assertThatThrownBy(() -> total.add(new BigDecimal("0.005"))).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> MoneyTotal.toMinorUnits(new BigDecimal("1.234"), 2)).isInstanceOf(ArithmeticException.class);
+        assertThat(total.getCount()).isZero();
+    }
+
+    @Test
+    void minorUnitConversionKeepsTheScale() {
+        assertThat(MoneyTotal.toMinorUnits(new BigDecimal("12.5"), 2)).isEqualTo(1250);
+        assertThat(MoneyTotal.toMinorUnits(new BigDecimal("-0.01"), 2)).isEqualTo(-1);
+        assertThat(MoneyTotal.fromMinorUnits(1250, 2)).isEqualTo(new BigDecimal("12.50"));
+    }
+
+    @Test
+    void sumPastALongIsCarriedInsteadOfWrapping() {
+        MoneyTotal total = new MoneyTotal().add(Long.MAX_VALUE).add(Long.MAX_VALUE).add(2);
+
+        BigDecimal expected = BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.valueOf(2)).add(new BigDecimal("0.02"));
+        assertThat(total.toBigDecimal()).isEqualByComparingTo(expected);
+        assertThat(total.getCount()).isEqualTo(3);
+    }
+
+    @Test
+    void negativeOverflowIsCarriedToo() {
+        MoneyTotal total = new MoneyTotal().add(Long.MIN_VALUE).add(-1).add(5);
+
+        assertThat(total.toBigDecimal()).isEqualByComparingTo(BigDecimal.valueOf(Long.MIN_VALUE, 2).add(new BigDecimal("0.04")));
+    }
+
+    @Test
+    void amountBeyondALongIsCarried() {
+        BigDecimal huge = new BigDecimal("123456789012345678901234.56");
+
+        MoneyTotal total = new MoneyTotal().add(new BigDecimal("1.00")).add(huge).add(huge.negate());
+
+        assertThat(total.toBigDecimal()).isEqualByComparingTo("1.00");
+        assertThat(total.getCount()).isEqualTo(3);
+        assertThatThrownBy(() -> MoneyTotal.toMinorUnits(huge, 2)).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void mergingKeepsCarriedAmounts() {
+        BigDecimal huge = new BigDecimal("99999999999999999999.99");
+        MoneyTotal first = new MoneyTotal().add(huge).add(new BigDecimal("0.01"));
+        MoneyTotal second = new MoneyTotal().add(Long.MAX_VALUE);
+
+        first.add(second);
+
+        assertThat(first.getCount()).isEqualTo(3);
+        assertThat(first.toBigDecimal()).isEqualByComparingTo(huge.add(new BigDecimal("0.01")).add(BigDecimal.valueOf(Long.MAX_VALUE, 2)));
+    }
+
+    @Test
+    void otherScales() {
+        MoneyTotal yen = new MoneyTotal(0).add(new BigDecimal("1500")).add(new BigDecimal("250"));
+
+        assertThat(yen.toBigDecimal()).isEqualTo(new BigDecimal("1750"));
+    }
+}
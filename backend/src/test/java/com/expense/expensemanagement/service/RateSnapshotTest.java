@@ -0,0 +1,126 @@
+package com.expense.expensemanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateSnapshotTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2024-03-05T10:15:30.123Z");
+
+    // Offset of the entry count: magic, version, scale, anchor code, creation time
+    private static final int COUNT_OFFSET = 4 + 2 + 1 + 3 + 8;
+
+    @Test
+    void roundTripKeepsAnchorTimeAndRates() throws IOException {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put("EUR", new BigDecimal("0.92"));
+        rates.put("JPY", new BigDecimal("149.8765432109"));
+        rates.put("KWD", new BigDecimal("0.30712345678"));
+
+        RateSnapshot read = RateSnapshot.read(ByteBuffer.wrap(write(new RateSnapshot("USD", CREATED_AT, rates))));
+
+        assertThat(read.getAnchorCurrency()).isEqualTo("USD");
+        assertThat(read.getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(read.getRates()).containsOnlyKeys("EUR", "JPY", "KWD");
+        assertThat(read.getRates().get("EUR")).isEqualByComparingTo("0.92");
+        assertThat(read.getRates().get("JPY")).isEqualByComparingTo("149.8765432109");
+        // Ten decimals are kept, rounded half up
+        assertThat(read.getRates().get("KWD")).isEqualByComparingTo("0.3071234568");
+    }
+
+    @Test
+    void writeLeavesOutEntriesTheFormatCannotHold() throws IOException {
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put("EUR", new BigDecimal("0.92"));
+        rates.put("EURO", new BigDecimal("0.92"));
+        rates.put("XXX", BigDecimal.ZERO);
+        rates.put("ZWL", new BigDecimal("1E+12"));
+
+        RateSnapshot read = RateSnapshot.read(ByteBuffer.wrap(write(new RateSnapshot("USD", CREATED_AT, rates))));
+
+        assertThat(read.getRates()).containsOnlyKeys("EUR");
+    }
+
+    @Test
+    void readsFromTheBufferPosition() throws IOException {
+        byte[] snapshot = write(new RateSnapshot("USD", CREATED_AT, Map.of("EUR", new BigDecimal("0.92"))));
+        ByteBuffer buffer = ByteBuffer.allocate(snapshot.length + 5);
+        buffer.position(5);
+        buffer.put(snapshot);
+        buffer.position(5);
+
+        assertThat(RateSnapshot.read(buffer).getRates()).containsOnlyKeys("EUR");
+    }
+
+    @Test
+    void corruptedByteFailsTheChecksum() throws IOException {
+        byte[] snapshot = write(new RateSnapshot("USD", CREATED_AT, Map.of("EUR", new BigDecimal("0.92"))));
+        snapshot[COUNT_OFFSET + 6] ^= 0x01;
+
+        assertThatThrownBy(() -> RateSnapshot.read(ByteBuffer.wrap(snapshot)))
+                .isInstanceOf(IOException.class).hasMessageContaining("checksum");
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        byte[] snapshot = write(new RateSnapshot("USD", CREATED_AT, Map.of("EUR", new BigDecimal("0.92"))));
+
+        assertThatThrownBy(() -> RateSnapshot.read(ByteBuffer.wrap(Arrays.copyOf(snapshot, 10))))
+                .isInstanceOf(IOException.class).hasMessageContaining("truncated");
+        // Cut inside the entries: the last four bytes are no longer the checksum of the rest
+        assertThatThrownBy(() -> RateSnapshot.read(ByteBuffer.wrap(Arrays.copyOf(snapshot, snapshot.length - 3))))
+                .isInstanceOf(IOException.class).hasMessageContaining("checksum");
+    }
+
+    @Test
+    void entryCountMustMatchTheLength() throws IOException {
+        byte[] snapshot = write(new RateSnapshot("USD", CREATED_AT, Map.of("EUR", new BigDecimal("0.92"))));
+        ByteBuffer.wrap(snapshot).putInt(COUNT_OFFSET, 2);
+
+        assertThatThrownBy(() -> RateSnapshot.read(ByteBuffer.wrap(resealed(snapshot))))
+                .isInstanceOf(IOException.class).hasMessageContaining("entry count");
+
+        ByteBuffer.wrap(snapshot).putInt(COUNT_OFFSET, -1);
+        assertThatThrownBy(() -> RateSnapshot.read(ByteBuffer.wrap(resealed(snapshot))))
+                .isInstanceOf(IOException.class).hasMessageContaining("entry count");
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        byte[] snapshot = write(new RateSnapshot("USD", CREATED_AT, Map.of("EUR", new BigDecimal("0.92"))));
+        ByteBuffer.wrap(snapshot).putInt(0, 0x504B0304);
+
+        assertThatThrownBy(() -> RateSnapshot.read(ByteBuffer.wrap(resealed(snapshot))))
+                .isInstanceOf(IOException.class).hasMessageContaining("Not a rate snapshot");
+
+        ByteBuffer.wrap(snapshot).putInt(0, 0x45585253).putShort(4, (short) 2);
+        assertThatThrownBy(() -> RateSnapshot.read(ByteBuffer.wrap(resealed(snapshot))))
+                .isInstanceOf(IOException.class).hasMessageContaining("version 2");
+    }
+
+    private static byte[] write(RateSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        snapshot.write(output);
+        return output.toByteArray();
+    }
+
+    // Recomputes the trailing checksum, so the check under test is the one that fails
+    private static byte[] resealed(byte[] snapshot) {
+        CRC32 crc = new CRC32();
+        crc.update(snapshot, 0, snapshot.length - 4);
+        ByteBuffer.wrap(snapshot).putInt(snapshot.length - 4, (int) crc.getValue());
+        return snapshot;
+    }
+}
@@ -0,0 +1,116 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.model.Company;
+import com.expense.expensemanagement.model.Role;
+import com.expense.expensemanagement.model.User;
+import com.expense.expensemanagement.repository.RefreshTokenRepository;
+import com.expense.expensemanagement.repository.UserRepository;
+import com.expense.expensemanagement.security.RefreshTokenGrant;
+import com.expense.expensemanagement.security.UserChangeTracker;
+import com.expense.expensemanagement.security.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private UserChangeTracker userChangeTracker;
+    private RefreshTokenService refreshTokenService;
+    private long nanos;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.getReferenceById(7L)).thenReturn(user());
+        userChangeTracker = new UserChangeTracker(86400000L, Duration.ofSeconds(10));
+
+        refreshTokenService = new RefreshTokenService(Duration.ofDays(30), 86400000L, 1000,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(), () -> nanos);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenRepository", refreshTokenRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(refreshTokenService, "userChangeTracker", userChangeTracker);
+    }
+
+    @Test
+    void rotatesFromTheHotIndexWhileTheUserIsUnchanged() {
+        String token = refreshTokenService.issueToken(user());
+        when(refreshTokenRepository.markUsed(anyString(), any())).thenReturn(1);
+
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(token);
+
+        assertThat(rotated.getGrant().getRole()).isEqualTo("ADMIN");
+        assertThat(rotated.getRefreshToken()).isNotEqualTo(token);
+        verify(refreshTokenRepository, never()).findActiveGrant(anyString());
+    }
+
+    @Test
+    void rereadsTheGrantOnceTheUserHasChanged() {
+        String token = refreshTokenService.issueToken(user());
+        // Demoted on another node; this node only learns the new version
+        userChangeTracker.onUserChanged(new UserChangedEvent(7L, 1L));
+        when(refreshTokenRepository.findActiveGrant(anyString())).thenReturn(Optional.of(grant(true, Role.RoleType.EMPLOYEE)));
+        when(refreshTokenRepository.markUsed(anyString(), any())).thenReturn(1);
+
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(token);
+
+        assertThat(rotated.getGrant().getRole()).isEqualTo("EMPLOYEE");
+        assertThat(rotated.getGrant().getTokenVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void refusesAUserDeactivatedSinceTheGrantWasCached() {
+        String token = refreshTokenService.issueToken(user());
+        userChangeTracker.onUserChanged(new UserChangedEvent(7L, 1L));
+        when(refreshTokenRepository.findActiveGrant(anyString())).thenReturn(Optional.of(grant(false, Role.RoleType.ADMIN)));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .hasMessage("User account is inactive");
+        verify(refreshTokenRepository, never()).markUsed(anyString(), any());
+    }
+
+    @Test
+    void rereadsAGrantCachedLongerThanChangesAreTracked() {
+        String token = refreshTokenService.issueToken(user());
+        // Changed more than a day ago; the tracker no longer holds the version, so only the age of the grant tells
+        nanos += Duration.ofHours(25).toNanos();
+        when(refreshTokenRepository.findActiveGrant(anyString())).thenReturn(Optional.of(grant(true, Role.RoleType.EMPLOYEE)));
+        when(refreshTokenRepository.markUsed(anyString(), any())).thenReturn(1);
+
+        RefreshTokenService.RotatedRefreshToken rotated = refreshTokenService.rotate(token);
+
+        assertThat(rotated.getGrant().getRole()).isEqualTo("EMPLOYEE");
+        verify(refreshTokenRepository).findActiveGrant(anyString());
+    }
+
+    private static RefreshTokenGrant grant(boolean active, Role.RoleType roleType) {
+        return new RefreshTokenGrant("hash", "family", LocalDateTime.now().plusDays(1), 7L, "jane",
+                "jane@example.com", "Jane", "Doe", active, roleType, 3L, "Acme", 1L);
+    }
+
+    private static User user() {
+        Company company = new Company();
+        company.setId(3L);
+        company.setName("Acme");
+        User user = new User("jane", "jane@example.com", "hash", "Jane", "Doe", company,
+                new Role(Role.RoleType.ADMIN, "Administrator"));
+        user.setId(7L);
+        return user;
+    }
+}
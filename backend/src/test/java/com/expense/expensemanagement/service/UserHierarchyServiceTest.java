@@ -0,0 +1,83 @@
+package com.expense.expensemanagement.service;
+
+import com.expense.expensemanagement.model.UserHierarchy;
+import com.expense.expensemanagement.repository.UserHierarchyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(UserHierarchyService.class)
+class UserHierarchyServiceTest {
+
+    @Autowired
+    private UserHierarchyService userHierarchyService;
+
+    @Autowired
+    private UserHierarchyRepository userHierarchyRepository;
+
+    // 1 manages 2 and 3; 2 manages 4, which manages 5
+    @BeforeEach
+    void buildTree() {
+        userHierarchyService.addUser(1L, null);
+        userHierarchyService.addUser(2L, 1L);
+        userHierarchyService.addUser(3L, 1L);
+        userHierarchyService.addUser(4L, 2L);
+        userHierarchyService.addUser(5L, 4L);
+    }
+
+    @Test
+    void addUserLinksEveryAncestor() {
+        assertThat(paths()).contains("1>5@3", "2>5@2", "4>5@1", "5>5@0");
+        assertThat(userHierarchyRepository.findSubtreeIds(1L)).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void moveUserCarriesTheWholeSubtree() {
+        userHierarchyService.moveUser(4L, 3L);
+
+        assertThat(userHierarchyRepository.findSubtreeIds(2L)).containsExactly(2L);
+        assertThat(userHierarchyRepository.findSubtreeIds(3L)).containsExactlyInAnyOrder(3L, 4L, 5L);
+        assertThat(paths()).contains("1>5@3", "3>5@2", "4>5@1").doesNotContain("2>4@1", "2>5@2");
+    }
+
+    @Test
+    void moveUserLeavesPathsOutsideTheSubtreeAlone() {
+        userHierarchyService.moveUser(5L, 3L);
+
+        assertThat(paths()).hasSize(11)
+                .contains("1>2@1", "2>4@1", "1>4@2", "1>5@2", "3>5@1", "5>5@0")
+                .doesNotContain("2>5@2", "4>5@1");
+    }
+
+    @Test
+    void moveUserWithoutManagerDetachesTheSubtree() {
+        userHierarchyService.moveUser(2L, null);
+
+        assertThat(userHierarchyRepository.findSubtreeIds(1L)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(userHierarchyRepository.findSubtreeIds(2L)).containsExactlyInAnyOrder(2L, 4L, 5L);
+    }
+
+    @Test
+    void moveUserUnderOwnReportIsRejected() {
+        List<String> before = paths();
+
+        assertThatThrownBy(() -> userHierarchyService.moveUser(2L, 5L)).hasMessageContaining("cannot report");
+        assertThatThrownBy(() -> userHierarchyService.moveUser(2L, 2L)).hasMessageContaining("cannot report");
+        assertThat(paths()).containsExactlyInAnyOrderElementsOf(before);
+    }
+
+    private List<String> paths() {
+        return userHierarchyRepository.findAll().stream()
+                .map(path -> path.getAncestorId() + ">" + path.getDescendantId() + "@" + path.getDepth())
+                .collect(Collectors.toList());
+    }
+}